@@ -0,0 +1,55 @@
+package com.michelin.ns4kafka.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark of the Connect cluster password vaulting, as done by the vault endpoint
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionUtilsBenchmark {
+    private static final String KEY_ENCRYPTION_KEY = "changeitchangeitchangeitchangeit";
+
+    @Param({"1", "200"})
+    private int passwordCount;
+
+    private String encryptedAes256Key;
+
+    private String encryptedAes256Salt;
+
+    private List<String> passwords;
+
+    /**
+     * Encrypt the Connect cluster key and salt, as they are stored
+     */
+    @Setup
+    public void setUp() {
+        encryptedAes256Key = EncryptionUtils.encryptAES256GCM("myAes256Key", KEY_ENCRYPTION_KEY);
+        encryptedAes256Salt = EncryptionUtils.encryptAES256GCM("myAes256Salt", KEY_ENCRYPTION_KEY);
+        passwords = IntStream.range(0, passwordCount)
+                .mapToObj(i -> "password" + i)
+                .toList();
+    }
+
+    /**
+     * Vault the passwords
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void vaultPasswords(Blackhole blackhole) {
+        String aes256Key = EncryptionUtils.decryptAES256GCM(encryptedAes256Key, KEY_ENCRYPTION_KEY);
+        String aes256Salt = EncryptionUtils.decryptAES256GCM(encryptedAes256Salt, KEY_ENCRYPTION_KEY);
+        for (String password : passwords) {
+            blackhole.consume(EncryptionUtils.encryptAESWithPrefix(password, aes256Key, aes256Salt));
+        }
+    }
+}
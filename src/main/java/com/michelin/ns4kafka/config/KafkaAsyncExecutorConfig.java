@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.kafka.clients.admin.Admin;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Properties;
 
@@ -19,7 +20,13 @@ public class KafkaAsyncExecutorConfig {
     private boolean manageTopics;
     private boolean manageAcls;
     private boolean dropUnsyncAcls = true;
+    private int aclBatchSize = 1000;
+    private Duration aclBatchInterval = Duration.ZERO;
+    private boolean aclDescribeByPrincipal;
+    private int aclDescribeConcurrency = 10;
     private boolean manageUsers;
+    private boolean dropUnsyncQuotas;
+    private int quotaBatchSize = 1000;
     private boolean manageConnectors;
     private KafkaProvider provider;
     private Properties config;
@@ -0,0 +1,25 @@
+package com.michelin.ns4kafka.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("ns4kafka.connect")
+public class KafkaConnectConfig {
+    private int circuitBreakerFailureThreshold = 3;
+    private Duration circuitBreakerInitialBackoff = Duration.ofSeconds(30);
+    private Duration circuitBreakerMaxBackoff = Duration.ofMinutes(10);
+    private Duration statusCheckInterval = Duration.ofSeconds(30);
+    private Duration connectorPluginCatalogTtl = Duration.ofMinutes(10);
+    private Duration connectorPluginCatalogRefreshInterval = Duration.ofMinutes(1);
+    private int connectorTaskRestartConcurrency = 8;
+    private int httpMaxConnections = 20;
+    private int httpMaxPendingRequests = 200;
+    private Duration httpConnectTimeout = Duration.ofSeconds(5);
+    private Duration httpReadTimeout = Duration.ofSeconds(30);
+    private Duration httpKeepAliveTimeout = Duration.ofMinutes(1);
+}
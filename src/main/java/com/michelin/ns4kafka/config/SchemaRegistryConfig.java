@@ -0,0 +1,28 @@
+package com.michelin.ns4kafka.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("ns4kafka.schema-registry")
+public class SchemaRegistryConfig {
+    private Duration subjectCatalogRefreshInterval = Duration.ofSeconds(30);
+    private Duration subjectCompatibilityCacheTtl = Duration.ofMinutes(5);
+    private Duration latestSchemaFingerprintCacheTtl = Duration.ofMinutes(5);
+    private Duration requestCacheTtl = Duration.ZERO;
+    private int bulkApplyConcurrency = 8;
+    private int subjectDeletionConcurrency = 8;
+    private int listPageSize = 500;
+    private boolean localCompatibilityCheck = false;
+    private Duration subjectVersionHistoryCacheTtl = Duration.ofMinutes(10);
+    private int subjectVersionHistoryConcurrency = 4;
+    private int httpMaxConnections = 20;
+    private int httpMaxPendingRequests = 200;
+    private Duration httpConnectTimeout = Duration.ofSeconds(5);
+    private Duration httpReadTimeout = Duration.ofSeconds(30);
+    private Duration httpKeepAliveTimeout = Duration.ofMinutes(1);
+}
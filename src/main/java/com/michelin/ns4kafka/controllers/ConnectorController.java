@@ -4,6 +4,7 @@ import com.michelin.ns4kafka.controllers.generic.NamespacedResourceController;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.connector.ChangeConnectorState;
 import com.michelin.ns4kafka.models.connector.Connector;
+import com.michelin.ns4kafka.models.connector.ConnectorStatusList;
 import com.michelin.ns4kafka.services.ConnectorService;
 import com.michelin.ns4kafka.services.ResourceQuotaService;
 import com.michelin.ns4kafka.utils.enums.ApplyStatus;
@@ -46,6 +47,16 @@ public class ConnectorController extends NamespacedResourceController {
         return connectorService.findAllForNamespace(getNamespace(namespace));
     }
 
+    /**
+     * List the status of the connectors by namespace
+     * @param namespace The namespace
+     * @return The status of the connectors, and the errors of the unreachable Connect clusters
+     */
+    @Get("/_/status")
+    public Mono<ConnectorStatusList> listStatuses(String namespace) {
+        return connectorService.findAllStatusesForNamespace(getNamespace(namespace));
+    }
+
     /**
      * Get a connector by namespace and name
      * @param namespace The namespace
@@ -197,7 +208,7 @@ public class ConnectorController extends NamespacedResourceController {
         Mono<HttpResponse<Void>> response;
         switch (changeConnectorState.getSpec().getAction()) {
             case restart:
-                response = connectorService.restart(ns, optionalConnector.get());
+                response = connectorService.restart(ns, optionalConnector.get(), changeConnectorState.getSpec().isOnlyFailed());
                 break;
             case pause:
                 response = connectorService.pause(ns, optionalConnector.get());
@@ -252,13 +263,9 @@ public class ConnectorController extends NamespacedResourceController {
                     return unsynchronizedConnectors;
                 }
 
-                return unsynchronizedConnectors
-                        .stream()
-                        .map(connector -> {
-                            sendEventLog(connector.getKind(), connector.getMetadata(), ApplyStatus.created, null, connector.getSpec());
-                            return connectorService.createOrUpdate(connector);
-                        })
-                        .toList();
+                unsynchronizedConnectors.forEach(connector ->
+                        sendEventLog(connector.getKind(), connector.getMetadata(), ApplyStatus.created, null, connector.getSpec()));
+                return connectorService.createOrUpdateAll(unsynchronizedConnectors);
             });
     }
 }
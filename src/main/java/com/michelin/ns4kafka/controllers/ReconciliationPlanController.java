@@ -0,0 +1,56 @@
+package com.michelin.ns4kafka.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.michelin.ns4kafka.controllers.generic.NonNamespacedResourceController;
+import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
+import com.michelin.ns4kafka.services.ReconciliationPlanService;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.List;
+
+@Tag(name = "Reconciliation plans", description = "Preview the changes the synchronization is about to apply.")
+@Controller(value = "/api/clusters")
+@RolesAllowed(ResourceBasedSecurityRule.IS_ADMIN)
+public class ReconciliationPlanController extends NonNamespacedResourceController {
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Inject
+    ReconciliationPlanService reconciliationPlanService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Compute the create, alter and delete actions the synchronization of a cluster is about to apply
+     * Nothing is applied. The result is streamed as newline-delimited JSON, one action per line
+     * @param cluster The cluster
+     * @return The reconciliation actions
+     */
+    @Get(value = "/{cluster}/plan", produces = APPLICATION_NDJSON)
+    public Flux<String> plan(String cluster) {
+        if (!reconciliationPlanService.isManagedCluster(cluster)) {
+            return Flux.error(new ResourceValidationException(List.of("Invalid value " + cluster
+                    + " for cluster: Cluster does not exist"), "ReconciliationPlan", cluster));
+        }
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        return reconciliationPlanService.plan(cluster)
+                .concatMap(action -> {
+                    try {
+                        return Mono.just(writer.writeValueAsString(action) + "\n");
+                    } catch (JsonProcessingException e) {
+                        return Mono.error(e);
+                    }
+                });
+    }
+}
@@ -1,11 +1,20 @@
 package com.michelin.ns4kafka.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
 import com.michelin.ns4kafka.controllers.generic.NamespacedResourceController;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
+import com.michelin.ns4kafka.models.schema.SchemaApplyResult;
 import com.michelin.ns4kafka.models.schema.SchemaCompatibilityState;
 import com.michelin.ns4kafka.models.schema.SchemaList;
+import com.michelin.ns4kafka.models.schema.SchemaListPage;
+import com.michelin.ns4kafka.models.schema.SchemaPurgeReport;
 import com.michelin.ns4kafka.services.SchemaService;
 import com.michelin.ns4kafka.utils.enums.ApplyStatus;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
@@ -16,13 +25,24 @@ import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static com.michelin.ns4kafka.controllers.ReconciliationPlanController.APPLICATION_NDJSON;
 
 @Tag(name = "Schemas", description = "Manage the schemas.")
 @Controller(value = "/api/namespaces/{namespace}/schemas")
@@ -31,6 +51,12 @@ public class SchemaController extends NamespacedResourceController {
     @Inject
     SchemaService schemaService;
 
+    @Inject
+    SchemaRegistryConfig schemaRegistryConfig;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     /**
      * List schemas by namespace
      * @param namespace The namespace
@@ -42,6 +68,42 @@ public class SchemaController extends NamespacedResourceController {
         return schemaService.findAllForNamespace(ns);
     }
 
+    /**
+     * List schemas by namespace, one page at a time
+     * @param namespace     The namespace
+     * @param limit         The maximum number of schemas of the page
+     * @param continueToken The continue token returned by the previous page
+     * @return A page of schemas
+     */
+    @Get("/_/page{?limit,continue}")
+    public Mono<SchemaListPage> listPage(String namespace, @QueryValue Optional<Integer> limit,
+                                         @QueryValue("continue") Optional<String> continueToken) {
+        Namespace ns = getNamespace(namespace);
+
+        int pageSize = limit.orElse(schemaRegistryConfig.getListPageSize());
+        if (pageSize < 1) {
+            return Mono.error(new ResourceValidationException(List.of("Invalid limit " + pageSize + ", it must be greater than 0."),
+                    "SchemaListPage", namespace));
+        }
+
+        return schemaService.findPageForNamespace(ns, continueToken.orElse(null), pageSize);
+    }
+
+    /**
+     * Stream schemas by namespace
+     * The schemas are streamed as newline-delimited JSON, one schema per line
+     * @param namespace The namespace
+     * @return The schemas
+     */
+    @Get(value = "/_/stream", produces = APPLICATION_NDJSON)
+    public Flux<String> listStream(String namespace) {
+        Namespace ns = getNamespace(namespace);
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        return schemaService.streamAllForNamespace(ns)
+                .concatMap(schema -> writeLine(writer, schema));
+    }
+
     /**
      * Get the last version of a schema by namespace and subject
      * @param namespace The namespace
@@ -83,49 +145,67 @@ public class SchemaController extends NamespacedResourceController {
                     schema.getMetadata().getName())), schema.getKind(), schema.getMetadata().getName()));
         }
 
-        return schemaService
-                .validateSchemaCompatibility(ns.getMetadata().getCluster(), schema)
-                .flatMap(validationErrors -> {
-                    if (!validationErrors.isEmpty()) {
-                        return Mono.error(new ResourceValidationException(validationErrors, schema.getKind(), schema.getMetadata().getName()));
-                    }
+        return applySchema(ns, schema, dryrun)
+                .map(status -> formatHttpResponse(schema, status));
+    }
 
-                    return schemaService
-                            .getLatestSubject(ns, schema.getMetadata().getName())
-                            .map(Optional::of)
-                            .defaultIfEmpty(Optional.empty())
-                            .flatMap(latestSubjectOptional -> {
-                                schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
-                                schema.getMetadata().setCluster(ns.getMetadata().getCluster());
-                                schema.getMetadata().setNamespace(ns.getMetadata().getName());
-                                latestSubjectOptional.ifPresent(value -> schema.getSpec().setCompatibility(value.getSpec().getCompatibility()));
-
-                                if (dryrun) {
-                                    // Cannot compute the "unchanged" apply status before getting the ID at registration
-                                    return Mono.just(formatHttpResponse(schema,
-                                            latestSubjectOptional.isPresent() ? ApplyStatus.changed : ApplyStatus.created));
-                                }
+    /**
+     * Publish a list of schemas
+     * The ownership of the subjects is checked once for all the schemas. The schemas are then published concurrently,
+     * after the schemas they reference. A subject given more than once is rejected, as its latest version would depend
+     * on the order of publication. The result of each schema is streamed as newline-delimited JSON, one schema per line
+     * @param namespace The namespace
+     * @param schemas   The schemas to create
+     * @param dryrun    Does the creation is a dry run
+     * @return The result of each schema
+     */
+    @Post(value = "/_/bulk{?dryrun}", produces = APPLICATION_NDJSON)
+    public Flux<String> applyAll(String namespace, @Valid @Body List<Schema> schemas, @QueryValue(defaultValue = "false") boolean dryrun) {
+        Namespace ns = getNamespace(namespace);
 
-                                return schemaService
-                                        .register(ns, schema)
-                                        .map(id -> {
-                                            ApplyStatus status;
-
-                                            if (latestSubjectOptional.isEmpty()) {
-                                                status = ApplyStatus.created;
-                                                sendEventLog(schema.getKind(), schema.getMetadata(), status, null, schema.getSpec());
-                                            } else if (!id.equals(latestSubjectOptional.get().getSpec().getId())) {
-                                                status = ApplyStatus.changed;
-                                                sendEventLog(schema.getKind(), schema.getMetadata(), status, latestSubjectOptional.get().getSpec(),
-                                                        schema.getSpec());
-                                            } else {
-                                                status = ApplyStatus.unchanged;
-                                            }
-
-                                            return formatHttpResponse(schema, status);
-                                        });
-                            });
-                });
+        Set<String> notOwnedSubjects = schemaService.findNotOwnedSubjects(ns, schemas.stream()
+                .map(schema -> schema.getMetadata().getName())
+                .toList());
+
+        Set<String> duplicatedSubjects = schemas.stream()
+                .collect(Collectors.groupingBy(schema -> schema.getMetadata().getName(), Collectors.counting()))
+                .entrySet()
+                .stream()
+                .filter(subjectCount -> subjectCount.getValue() > 1)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        List<List<Schema>> schemasByReferenceDepth = schemaService.groupByReferenceDepth(schemas);
+        Set<Schema> orderedSchemas = Collections.newSetFromMap(new IdentityHashMap<>());
+        schemasByReferenceDepth.forEach(orderedSchemas::addAll);
+
+        // The schemas left out are either on a reference cycle, or reference a schema left out
+        List<Schema> unorderedSchemas = schemas.stream()
+                .filter(schema -> !orderedSchemas.contains(schema))
+                .toList();
+        Set<String> circularSubjects = schemaService.findCircularSubjects(unorderedSchemas);
+        Set<String> unorderedSubjects = unorderedSchemas.stream()
+                .map(schema -> schema.getMetadata().getName())
+                .collect(Collectors.toSet());
+
+        Set<String> failedSubjects = ConcurrentHashMap.newKeySet();
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        return Flux.fromIterable(schemasByReferenceDepth)
+                .concatMap(schemasOfSameDepth -> Flux.fromIterable(schemasOfSameDepth)
+                        .flatMap(schema -> applySchemaOfBulk(ns, schema, dryrun, notOwnedSubjects, duplicatedSubjects, failedSubjects),
+                                schemaRegistryConfig.getBulkApplyConcurrency()))
+                .concatWith(Flux.fromIterable(unorderedSchemas)
+                        .map(schema -> buildSchemaApplyResult(ns, schema, null, circularSubjects.contains(schema.getMetadata().getName()) ?
+                                List.of("Circular reference between " + schema.getMetadata().getName() + " and the other schemas.") :
+                                schema.getSpec().getReferences()
+                                        .stream()
+                                        .map(Schema.SchemaSpec.Reference::getSubject)
+                                        .filter(unorderedSubjects::contains)
+                                        .filter(subject -> !subject.equals(schema.getMetadata().getName()))
+                                        .distinct()
+                                        .map(subject -> "Referenced schema " + subject + " failed.")
+                                        .toList())))
+                .concatMap(result -> writeLine(writer, result));
     }
 
     /**
@@ -172,6 +252,48 @@ public class SchemaController extends NamespacedResourceController {
                 });
     }
 
+    /**
+     * Delete all the subjects of a namespace starting with the given prefix
+     * The subjects are deleted concurrently, then the deleted subjects, the skipped subjects and the failures are reported at once
+     * @param namespace The current namespace
+     * @param prefix    The prefix of the subjects to delete
+     * @param all       Delete all the subjects of the namespace, when no prefix is given
+     * @param dryrun    Run in dry mode or not
+     * @return The purge report
+     */
+    @Delete("/_/purge{?prefix,all,dryrun}")
+    public Mono<SchemaPurgeReport> purge(String namespace, @QueryValue Optional<String> prefix,
+                                         @QueryValue(defaultValue = "false") boolean all,
+                                         @QueryValue(defaultValue = "false") boolean dryrun) {
+        Namespace ns = getNamespace(namespace);
+
+        if (prefix.filter(subjectPrefix -> !subjectPrefix.isBlank()).isEmpty() && !all) {
+            return Mono.error(new ResourceValidationException(
+                    List.of("Invalid empty prefix, give a prefix or all=true to delete all the subjects of the namespace."),
+                    "SchemaPurgeReport", namespace));
+        }
+
+        String subjectPrefix = prefix.orElse("");
+        return schemaService.findAllForNamespace(ns)
+                .flatMap(schemas -> {
+                    List<String> subjects = schemas.stream()
+                            .map(schema -> schema.getMetadata().getName())
+                            .filter(subject -> subject.startsWith(subjectPrefix))
+                            .sorted()
+                            .toList();
+
+                    if (dryrun) {
+                        return Mono.just(buildSchemaPurgeReport(ns, subjectPrefix, subjects, Set.of(), List.of()));
+                    }
+
+                    Set<String> skippedSubjects = ConcurrentHashMap.newKeySet();
+                    return Flux.fromIterable(subjects)
+                            .flatMap(subject -> purgeSubject(ns, subject, skippedSubjects), schemaRegistryConfig.getSubjectDeletionConcurrency())
+                            .collectList()
+                            .map(subjectErrors -> buildSchemaPurgeReport(ns, subjectPrefix, subjects, skippedSubjects, subjectErrors));
+                });
+    }
+
     /**
      * Update the compatibility of a subject
      * @param namespace     The namespace
@@ -220,4 +342,214 @@ public class SchemaController extends NamespacedResourceController {
                             });
                 });
     }
+
+    /**
+     * Publish a schema whose subject has been validated
+     * @param ns     The namespace
+     * @param schema The schema to create
+     * @param dryrun Does the creation is a dry run
+     * @return The apply status
+     */
+    private Mono<ApplyStatus> applySchema(Namespace ns, Schema schema, boolean dryrun) {
+        // Skip the Schema Registry when the schema is the latest version of the subject
+        if (schemaService.isLatestSchema(ns, schema)) {
+            return schemaService
+                    .getCurrentCompatibility(ns.getMetadata().getCluster(), schema.getMetadata().getName())
+                    .map(compatibility -> {
+                        schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
+                        schema.getMetadata().setCluster(ns.getMetadata().getCluster());
+                        schema.getMetadata().setNamespace(ns.getMetadata().getName());
+                        schema.getSpec().setCompatibility(compatibility);
+                        return ApplyStatus.unchanged;
+                    });
+        }
+
+        // The compatibility check and the latest version do not depend on each other, so they are fetched concurrently
+        return Mono.zip(schemaService.validateSchemaCompatibility(ns.getMetadata().getCluster(), schema),
+                        schemaService.getLatestSubject(ns, schema.getMetadata().getName())
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty()))
+                .flatMap(validationErrorsAndLatestSubject -> {
+                    List<String> validationErrors = validationErrorsAndLatestSubject.getT1();
+                    if (!validationErrors.isEmpty()) {
+                        return Mono.error(new ResourceValidationException(validationErrors, schema.getKind(), schema.getMetadata().getName()));
+                    }
+
+                    Optional<Schema> latestSubjectOptional = validationErrorsAndLatestSubject.getT2();
+                    schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
+                    schema.getMetadata().setCluster(ns.getMetadata().getCluster());
+                    schema.getMetadata().setNamespace(ns.getMetadata().getName());
+                    latestSubjectOptional.ifPresent(value -> schema.getSpec().setCompatibility(value.getSpec().getCompatibility()));
+
+                    if (dryrun) {
+                        // Cannot compute the "unchanged" apply status before getting the ID at registration
+                        return Mono.just(latestSubjectOptional.isPresent() ? ApplyStatus.changed : ApplyStatus.created);
+                    }
+
+                    return schemaService
+                            .register(ns, schema)
+                            .map(id -> {
+                                ApplyStatus status;
+
+                                if (latestSubjectOptional.isEmpty()) {
+                                    status = ApplyStatus.created;
+                                    sendEventLog(schema.getKind(), schema.getMetadata(), status, null, schema.getSpec());
+                                } else if (!id.equals(latestSubjectOptional.get().getSpec().getId())) {
+                                    status = ApplyStatus.changed;
+                                    sendEventLog(schema.getKind(), schema.getMetadata(), status, latestSubjectOptional.get().getSpec(),
+                                            schema.getSpec());
+                                } else {
+                                    status = ApplyStatus.unchanged;
+                                }
+
+                                return status;
+                            });
+                });
+    }
+
+    /**
+     * Publish a schema of a bulk apply, reporting its errors in its result instead of failing the whole apply
+     * @param ns               The namespace
+     * @param schema           The schema to create
+     * @param dryrun           Does the creation is a dry run
+     * @param notOwnedSubjects   The subjects the namespace is not owner of
+     * @param duplicatedSubjects The subjects given more than once in the bulk apply
+     * @param failedSubjects     The subjects of the bulk apply that already failed
+     * @return The result of the schema
+     */
+    private Mono<SchemaApplyResult> applySchemaOfBulk(Namespace ns, Schema schema, boolean dryrun, Set<String> notOwnedSubjects,
+                                                      Set<String> duplicatedSubjects, Set<String> failedSubjects) {
+        String subject = schema.getMetadata().getName();
+        List<String> validationErrors = new ArrayList<>();
+
+        if (!subject.endsWith("-key") && !subject.endsWith("-value")) {
+            validationErrors.add("Invalid value " + subject + " for name: subject must end with -key or -value");
+        }
+
+        if (notOwnedSubjects.contains(subject)) {
+            validationErrors.add(String.format("Namespace not owner of this schema %s.", subject));
+        }
+
+        if (duplicatedSubjects.contains(subject)) {
+            validationErrors.add("Subject " + subject + " is given more than once.");
+        }
+
+        if (schema.getSpec().getReferences() != null) {
+            schema.getSpec().getReferences().stream()
+                    .filter(reference -> failedSubjects.contains(reference.getSubject()))
+                    .forEach(reference -> validationErrors.add("Referenced schema " + reference.getSubject() + " failed."));
+        }
+
+        if (!validationErrors.isEmpty()) {
+            failedSubjects.add(subject);
+            return Mono.just(buildSchemaApplyResult(ns, schema, null, validationErrors));
+        }
+
+        return applySchema(ns, schema, dryrun)
+                .map(status -> buildSchemaApplyResult(ns, schema, status, List.of()))
+                .onErrorResume(error -> {
+                    failedSubjects.add(subject);
+                    return Mono.just(buildSchemaApplyResult(ns, schema, null, error instanceof ResourceValidationException resourceValidationException ?
+                            resourceValidationException.getValidationErrors() : List.of(error.getMessage())));
+                });
+    }
+
+    /**
+     * Build the result of a schema of a bulk apply
+     * @param ns     The namespace
+     * @param schema The schema
+     * @param status The apply status, null if the schema failed
+     * @param errors The errors
+     * @return The result of the schema
+     */
+    private SchemaApplyResult buildSchemaApplyResult(Namespace ns, Schema schema, ApplyStatus status, List<String> errors) {
+        return SchemaApplyResult.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(ns.getMetadata().getCluster())
+                        .namespace(ns.getMetadata().getName())
+                        .name(schema.getMetadata().getName())
+                        .build())
+                .spec(SchemaApplyResult.SchemaApplyResultSpec.builder()
+                        .status(status)
+                        .errors(errors)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Delete a subject of a purge, reporting its error instead of failing the whole purge
+     * A subject without version anymore is skipped
+     * @param ns              The namespace
+     * @param subject         The subject to delete
+     * @param skippedSubjects The skipped subjects, the subject is added to them when skipped
+     * @return The error of the subject, or nothing if the subject has been deleted or skipped
+     */
+    private Mono<SchemaPurgeReport.SubjectError> purgeSubject(Namespace ns, String subject, Set<String> skippedSubjects) {
+        return schemaService.getLatestSubject(ns, subject)
+                .switchIfEmpty(Mono.<Schema>fromRunnable(() -> skippedSubjects.add(subject)))
+                .flatMap(schemaToDelete -> {
+                    sendEventLog(schemaToDelete.getKind(),
+                            schemaToDelete.getMetadata(),
+                            ApplyStatus.deleted,
+                            schemaToDelete.getSpec(),
+                            null);
+                    return schemaService.deleteSubject(ns, subject);
+                })
+                .then(Mono.<SchemaPurgeReport.SubjectError>empty())
+                .onErrorResume(error -> Mono.just(SchemaPurgeReport.SubjectError.builder()
+                        .subject(subject)
+                        .errorMessage(error.getMessage())
+                        .build()));
+    }
+
+    /**
+     * Build the report of a purge
+     * @param ns              The namespace
+     * @param prefix          The prefix of the deleted subjects
+     * @param subjects        The subjects to delete
+     * @param skippedSubjects The subjects skipped because they have no version anymore
+     * @param subjectErrors   The errors of the subjects that could not be deleted
+     * @return The purge report
+     */
+    private SchemaPurgeReport buildSchemaPurgeReport(Namespace ns, String prefix, List<String> subjects, Set<String> skippedSubjects,
+                                                     List<SchemaPurgeReport.SubjectError> subjectErrors) {
+        Set<String> failedSubjects = subjectErrors.stream()
+                .map(SchemaPurgeReport.SubjectError::getSubject)
+                .collect(Collectors.toSet());
+
+        return SchemaPurgeReport.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(ns.getMetadata().getCluster())
+                        .namespace(ns.getMetadata().getName())
+                        .creationTimestamp(Date.from(Instant.now()))
+                        .build())
+                .spec(SchemaPurgeReport.SchemaPurgeReportSpec.builder()
+                        .prefix(prefix)
+                        .subjectCount(subjects.size())
+                        .deletedSubjects(subjects.stream()
+                                .filter(subject -> !failedSubjects.contains(subject) && !skippedSubjects.contains(subject))
+                                .toList())
+                        .skippedSubjects(subjects.stream()
+                                .filter(skippedSubjects::contains)
+                                .toList())
+                        .errors(subjectErrors.stream()
+                                .sorted(Comparator.comparing(SchemaPurgeReport.SubjectError::getSubject))
+                                .toList())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Write a resource as a line of newline-delimited JSON
+     * @param writer   The JSON writer, without indentation
+     * @param resource The resource
+     * @return The line
+     */
+    private Mono<String> writeLine(ObjectWriter writer, Object resource) {
+        try {
+            return Mono.just(writer.writeValueAsString(resource) + "\n");
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
 }
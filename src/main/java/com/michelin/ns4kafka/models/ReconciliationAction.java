@@ -0,0 +1,98 @@
+package com.michelin.ns4kafka.models;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationAction {
+    private final String apiVersion = "v1";
+    private final String kind = "ReconciliationAction";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private ReconciliationActionSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class ReconciliationActionSpec {
+        private ResourceType resourceType;
+        private Action action;
+        private String connectCluster;
+        private List<String> changes;
+        private String errorMessage;
+    }
+
+    public enum ResourceType {
+        TOPIC,
+        ACL,
+        CONNECTOR
+    }
+
+    public enum Action {
+        CREATE,
+        ALTER,
+        DELETE,
+        ERROR
+    }
+
+    /**
+     * Build a reconciliation action
+     * @param cluster The Kafka cluster
+     * @param name The name of the resource
+     * @param resourceType The type of the resource
+     * @param action The action to perform on the resource
+     * @param changes The changes applied to the resource
+     * @return The reconciliation action
+     */
+    public static ReconciliationAction of(String cluster, String name, ResourceType resourceType, Action action, List<String> changes) {
+        return ReconciliationAction.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(cluster)
+                        .name(name)
+                        .build())
+                .spec(ReconciliationActionSpec.builder()
+                        .resourceType(resourceType)
+                        .action(action)
+                        .changes(changes)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Build a reconciliation action reporting that the changes of a resource could not be computed
+     * @param cluster The Kafka cluster
+     * @param name The name of the resource
+     * @param resourceType The type of the resource
+     * @param errorMessage The error
+     * @return The reconciliation action
+     */
+    public static ReconciliationAction error(String cluster, String name, ResourceType resourceType, String errorMessage) {
+        return ReconciliationAction.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(cluster)
+                        .name(name)
+                        .build())
+                .spec(ReconciliationActionSpec.builder()
+                        .resourceType(resourceType)
+                        .action(Action.ERROR)
+                        .errorMessage(errorMessage)
+                        .build())
+                .build();
+    }
+}
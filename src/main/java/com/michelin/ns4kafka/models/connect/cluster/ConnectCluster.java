@@ -1,11 +1,13 @@
 package com.michelin.ns4kafka.models.connect.cluster;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import io.micronaut.core.annotation.Introspected;
 import lombok.*;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.util.Date;
 
 @Data
 @Builder
@@ -50,6 +52,19 @@ public class ConnectCluster {
         @EqualsAndHashCode.Exclude
         String status;
 
+        /**
+         * Gets the time the Kafka Connect status has been checked at
+         */
+        @EqualsAndHashCode.Exclude
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        Date statusTimestamp;
+
+        /**
+         * Gets the circuit breaker state of the Kafka Connect (CLOSED, HALF_OPEN or OPEN)
+         */
+        @EqualsAndHashCode.Exclude
+        String circuitBreakerState;
+
         /**
          * Gets or sets the aes256 key.
          */
@@ -0,0 +1,14 @@
+package com.michelin.ns4kafka.models.connect.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published whenever a Connect cluster is created, updated or deleted in the store
+ */
+@Data
+@AllArgsConstructor
+public class ConnectClusterStoreEvent {
+    private String key;
+    private ConnectCluster connectCluster;
+}
@@ -37,6 +37,7 @@ public class ChangeConnectorState {
     public static class ChangeConnectorStateSpec {
         @NotNull
         private ConnectorAction action;
+        private boolean onlyFailed;
     }
 
     @Data
@@ -80,6 +80,7 @@ public class Connector {
         PAUSED,
         FAILED,
         DESTROYED,
+        RESTARTING,
     }
 
 }
@@ -0,0 +1,49 @@
+package com.michelin.ns4kafka.models.connector;
+
+import com.michelin.ns4kafka.models.ObjectMeta;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectorStatusList {
+    private final String apiVersion = "v1";
+    private final String kind = "ConnectorStatusList";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private ConnectorStatusListSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class ConnectorStatusListSpec {
+        private List<Connector> connectors;
+        private List<ConnectClusterError> errors;
+    }
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class ConnectClusterError {
+        private String connectCluster;
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,39 @@
+package com.michelin.ns4kafka.models.schema;
+
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.utils.enums.ApplyStatus;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Introspected
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaApplyResult {
+    private final String apiVersion = "v1";
+    private final String kind = "SchemaApplyResult";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private SchemaApplyResultSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class SchemaApplyResultSpec {
+        private ApplyStatus status;
+        private List<String> errors;
+    }
+}
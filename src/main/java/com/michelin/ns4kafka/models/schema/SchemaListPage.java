@@ -0,0 +1,25 @@
+package com.michelin.ns4kafka.models.schema;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaListPage {
+    private final String apiVersion = "v1";
+    private final String kind = "SchemaListPage";
+
+    private List<SchemaList> items;
+
+    @JsonProperty("continue")
+    private String continueToken;
+}
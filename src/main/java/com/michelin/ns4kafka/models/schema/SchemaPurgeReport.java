@@ -0,0 +1,52 @@
+package com.michelin.ns4kafka.models.schema;
+
+import com.michelin.ns4kafka.models.ObjectMeta;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Introspected
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaPurgeReport {
+    private final String apiVersion = "v1";
+    private final String kind = "SchemaPurgeReport";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private SchemaPurgeReportSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class SchemaPurgeReportSpec {
+        private String prefix;
+        private int subjectCount;
+        private List<String> deletedSubjects;
+        private List<String> skippedSubjects;
+        private List<SubjectError> errors;
+    }
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class SubjectError {
+        private String subject;
+        private String errorMessage;
+    }
+}
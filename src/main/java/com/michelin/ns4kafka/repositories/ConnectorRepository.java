@@ -19,6 +19,12 @@ public interface ConnectorRepository {
      */
     Connector create(Connector connector);
 
+    /**
+     * Create or update a given list of connectors in a single batch
+     * @param connectors The connectors to create
+     */
+    void createAll(List<Connector> connectors);
+
     /**
      * Delete a given connector
      * @param connector The connector to delete
@@ -25,6 +25,12 @@ public interface TopicRepository {
      */
     Topic create(Topic topic);
 
+    /**
+     * Create or update a given list of topics in a single batch
+     * @param topics The topics to create
+     */
+    void createAll(List<Topic> topics);
+
     /**
      * Delete a given topic
      * @param topic The topic to delete
@@ -1,9 +1,12 @@
 package com.michelin.ns4kafka.repositories.kafka;
 
 import com.michelin.ns4kafka.models.connect.cluster.ConnectCluster;
+import com.michelin.ns4kafka.models.connect.cluster.ConnectClusterStoreEvent;
 import com.michelin.ns4kafka.repositories.ConnectClusterRepository;
 import io.micronaut.configuration.kafka.annotation.*;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.Producer;
@@ -18,6 +21,9 @@ import java.util.List;
         offsetStrategy = OffsetStrategy.DISABLED
 )
 public class KafkaConnectClusterRepository extends KafkaStore<ConnectCluster> implements ConnectClusterRepository {
+    @Inject
+    ApplicationEventPublisher<ConnectClusterStoreEvent> applicationEventPublisher;
+
     public KafkaConnectClusterRepository(@Value("${ns4kafka.store.kafka.topics.prefix}.connect-workers") String kafkaTopic,
                                          @KafkaClient("connect-workers") Producer<String, ConnectCluster> kafkaProducer) {
         super(kafkaTopic, kafkaProducer);
@@ -49,6 +55,7 @@ public class KafkaConnectClusterRepository extends KafkaStore<ConnectCluster> im
     @Topic(value = "${ns4kafka.store.kafka.topics.prefix}.connect-workers")
     void receive(ConsumerRecord<String, ConnectCluster> record) {
         super.receive(record);
+        applicationEventPublisher.publishEvent(new ConnectClusterStoreEvent(record.key(), record.value()));
     }
 
     @Override
@@ -44,6 +44,15 @@ public class KafkaConnectorRepository extends KafkaStore<Connector> implements C
         return this.produce(getMessageKey(connector),connector);
     }
 
+    /**
+     * Create or update a given list of connectors in a single batch
+     * @param connectors The connectors to create
+     */
+    @Override
+    public void createAll(List<Connector> connectors) {
+        this.produceAll(connectors);
+    }
+
     /**
      * Delete a given connector
      * @param connector The connector to delete
@@ -23,9 +23,7 @@ import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.errors.TopicExistsException;
 
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
@@ -252,6 +250,57 @@ public abstract class KafkaStore<T> {
         return store.get(key);
     }
 
+    /**
+     * Produce a batch of records
+     * All the records are sent before waiting for any ack, then the local store is awaited once,
+     * up to the offset of the last written record
+     * @param messages The record bodies
+     * @throws KafkaStoreException Exception thrown during the send process
+     */
+    void produceAll(Collection<T> messages) throws KafkaStoreException {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        boolean knownSuccessfulWrite = false;
+        try {
+            List<Future<RecordMetadata>> acks = new ArrayList<>();
+            for (T message : messages) {
+                String key = getMessageKey(message);
+                if (key == null) {
+                    throw new KafkaStoreException("Key should not be null");
+                }
+
+                ProducerRecord<String,T> producerRecord = new ProducerRecord<>(kafkaTopic, key, message);
+                log.trace("Sending record to topic {}", producerRecord);
+                acks.add(kafkaProducer.send(producerRecord));
+            }
+
+            long lastOffset = -1;
+            for (Future<RecordMetadata> ack : acks) {
+                lastOffset = Math.max(lastOffset, ack.get(initTimeout, TimeUnit.MILLISECONDS).offset());
+            }
+
+            log.trace("Waiting for the local store to catch up to offset {} after a batch of {} records", lastOffset, acks.size());
+            lastWrittenOffset = lastOffset;
+            waitUntilOffset(getLatestOffset(), TimeUnit.MILLISECONDS);
+            knownSuccessfulWrite = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaStoreException("Batch put operation interrupted while waiting for an ack from Kafka", e);
+        } catch (ExecutionException e) {
+            throw new KafkaStoreException("Batch put operation failed while waiting for an ack from Kafka", e);
+        } catch (TimeoutException e) {
+            throw new KafkaStoreException("Batch put operation timed out while waiting for an ack from Kafka", e);
+        } catch (KafkaException e) {
+            throw new KafkaStoreException("Batch put operation to Kafka failed", e);
+        } finally {
+            if (!knownSuccessfulWrite) {
+                this.lastWrittenOffset = -1;
+            }
+        }
+    }
+
     /**
      * Handle a new consumed record
      * See: /core/src/main/java/io/confluent/kafka/schemaregistry/storage/KafkaStoreReaderThread.java#L326
@@ -43,6 +43,15 @@ public class KafkaTopicRepository extends KafkaStore<Topic> implements TopicRepo
         return this.produce(getMessageKey(topic), topic);
     }
 
+    /**
+     * Create or update a given list of topics in a single batch
+     * @param topics The topics to create
+     */
+    @Override
+    public void createAll(List<Topic> topics) {
+        this.produceAll(topics);
+    }
+
     /**
      * Delete a given topic
      * @param topic The topic to delete
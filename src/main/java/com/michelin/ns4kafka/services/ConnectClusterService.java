@@ -12,21 +12,20 @@ import com.michelin.ns4kafka.services.clients.connect.entities.ServerInfo;
 import com.michelin.ns4kafka.utils.EncryptionUtils;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpRequest;
-import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
-import io.micronaut.http.client.exceptions.HttpClientException;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,6 +39,8 @@ public class ConnectClusterService {
 
     private static final String WILDCARD_SECRET = "*****";
 
+    private static final KafkaConnectStatus PENDING_KAFKA_CONNECT_STATUS = new KafkaConnectStatus("Unknown (status check pending)", null);
+
     @Inject
     KafkaConnectClient kafkaConnectClient;
 
@@ -59,6 +60,8 @@ public class ConnectClusterService {
     @Client
     HttpClient httpClient;
 
+    private final Map<String, KafkaConnectStatus> kafkaConnectStatuses = new ConcurrentHashMap<>();
+
     /**
      * Find all self deployed Connect clusters
      *
@@ -101,35 +104,85 @@ public class ConnectClusterService {
     public List<ConnectCluster> findAllByNamespaceOwner(Namespace namespace) {
         return findAllByNamespace(namespace, List.of(AccessControlEntry.Permission.OWNER))
                 .stream()
-                .map(connectCluster -> ConnectCluster.builder()
-                        .metadata(connectCluster.getMetadata())
-                        .spec(ConnectCluster.ConnectClusterSpec.builder()
-                                .url(connectCluster.getSpec().getUrl())
-                                .username(connectCluster.getSpec().getUsername())
-                                .password(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getPassword(), securityConfig.getAes256EncryptionKey()))
-                                .status(getKafkaConnectStatus(connectCluster))
-                                .aes256Key(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getAes256Key(), securityConfig.getAes256EncryptionKey()))
-                                .aes256Salt(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getAes256Salt(), securityConfig.getAes256EncryptionKey()))
-                                .aes256Format(connectCluster.getSpec().getAes256Format())
-                                .build())
-                        .build())
+                .map(connectCluster -> {
+                    KafkaConnectStatus status = getKafkaConnectStatus(connectCluster);
+                    return ConnectCluster.builder()
+                            .metadata(connectCluster.getMetadata())
+                            .spec(ConnectCluster.ConnectClusterSpec.builder()
+                                    .url(connectCluster.getSpec().getUrl())
+                                    .username(connectCluster.getSpec().getUsername())
+                                    .password(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getPassword(), securityConfig.getAes256EncryptionKey()))
+                                    .status(status.status())
+                                    .statusTimestamp(status.timestamp())
+                                    .circuitBreakerState(kafkaConnectClient.circuitBreakerState(connectCluster.getMetadata().getCluster(),
+                                            connectCluster.getMetadata().getName()))
+                                    .aes256Key(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getAes256Key(), securityConfig.getAes256EncryptionKey()))
+                                    .aes256Salt(EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getAes256Salt(), securityConfig.getAes256EncryptionKey()))
+                                    .aes256Format(connectCluster.getSpec().getAes256Format())
+                                    .build())
+                            .build();
+                })
                 .toList();
     }
 
     /**
      * Get Kafka Connect status
+     * The status is read from the cache, refreshed in background. A Kafka Connect missing from the cache is reported as pending,
+     * and checked in background without waiting for it
      * @param connectCluster The Kafka Connect
      * @return The status
      */
-    private String getKafkaConnectStatus(ConnectCluster connectCluster) {
-        try {
-            HttpResponse<ServerInfo> response = kafkaConnectClient.version(connectCluster.getMetadata().getCluster(), connectCluster.getMetadata().getName());
-            return "Healthy (" + response.status() + ")";
-        } catch (HttpClientException e) {
-            return "Unhealthy (" + e.getMessage() + ")";
+    private KafkaConnectStatus getKafkaConnectStatus(ConnectCluster connectCluster) {
+        String key = getKafkaConnectStatusKey(connectCluster);
+        if (kafkaConnectStatuses.putIfAbsent(key, PENDING_KAFKA_CONNECT_STATUS) == null) {
+            checkKafkaConnectStatus(connectCluster).subscribe();
         }
+
+        return kafkaConnectStatuses.getOrDefault(key, PENDING_KAFKA_CONNECT_STATUS);
     }
 
+    /**
+     * Check the status of all the self deployed Connect clusters in parallel, and cache them
+     * @return The completion of the checks
+     */
+    public Mono<Void> refreshKafkaConnectStatuses() {
+        List<ConnectCluster> connectClusters = connectClusterRepository.findAll();
+
+        // Forget the deleted Connect clusters
+        kafkaConnectStatuses.keySet().retainAll(connectClusters
+                .stream()
+                .map(this::getKafkaConnectStatusKey)
+                .toList());
+
+        return Flux.fromIterable(connectClusters)
+                .flatMap(this::checkKafkaConnectStatus)
+                .then();
+    }
+
+    /**
+     * Check the status of a Kafka Connect, and cache it
+     * @param connectCluster The Kafka Connect
+     * @return The status
+     */
+    private Mono<KafkaConnectStatus> checkKafkaConnectStatus(ConnectCluster connectCluster) {
+        return Mono.defer(() -> kafkaConnectClient.version(connectCluster.getMetadata().getCluster(), connectCluster.getMetadata().getName()))
+                .map(response -> "Healthy (" + response.status() + ")")
+                .onErrorResume(e -> Mono.just("Unhealthy (" + e.getMessage() + ")"))
+                .map(status -> new KafkaConnectStatus(status, Date.from(Instant.now())))
+                .doOnNext(status -> kafkaConnectStatuses.put(getKafkaConnectStatusKey(connectCluster), status));
+    }
+
+    private String getKafkaConnectStatusKey(ConnectCluster connectCluster) {
+        return connectCluster.getMetadata().getCluster() + "/" + connectCluster.getMetadata().getName();
+    }
+
+    /**
+     * The status of a Kafka Connect
+     * @param status The status
+     * @param timestamp The time the status has been checked at
+     */
+    private record KafkaConnectStatus(String status, Date timestamp) {}
+
     /**
      * Find all self deployed Connect clusters whose namespace has write access
      *
@@ -1,15 +1,23 @@
 package com.michelin.ns4kafka.services;
 
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.connector.Connector;
+import com.michelin.ns4kafka.models.connector.ConnectorStatusList;
 import com.michelin.ns4kafka.repositories.ConnectorRepository;
 import com.michelin.ns4kafka.services.clients.connect.KafkaConnectClient;
+import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorPluginInfo;
 import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorSpecs;
+import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorStateInfo;
+import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorStatus;
 import com.michelin.ns4kafka.services.executors.ConnectorAsyncExecutor;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -17,10 +25,20 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,6 +47,8 @@ import static com.michelin.ns4kafka.utils.config.ConnectorConfig.CONNECTOR_CLASS
 @Slf4j
 @Singleton
 public class ConnectorService {
+    private static final String FAILED = "FAILED";
+
     @Inject
     AccessControlEntryService accessControlEntryService;
 
@@ -44,6 +64,13 @@ public class ConnectorService {
     @Inject
     ConnectClusterService connectClusterService;
 
+    @Inject
+    KafkaConnectConfig kafkaConnectConfig;
+
+    private final Map<ConnectorPluginCatalogKey, Mono<Map<String, ConnectorPluginInfo>>> connectorPluginCatalogs = new ConcurrentHashMap<>();
+
+    private final Map<ConnectorPluginCatalogKey, String> connectWorkerVersions = new ConcurrentHashMap<>();
+
     /**
      * Find all connectors by given namespace
      * @param namespace The namespace
@@ -96,6 +123,84 @@ public class ConnectorService {
                 .findFirst();
     }
 
+    /**
+     * Find the status of all connectors by given namespace
+     * Each Connect cluster is queried once, in parallel. The connectors of an unreachable Connect cluster are returned without status
+     * @param namespace The namespace
+     * @return The status of the connectors, and the errors of the unreachable Connect clusters
+     */
+    public Mono<ConnectorStatusList> findAllStatusesForNamespace(Namespace namespace) {
+        Map<String, List<Connector>> connectorsByConnectCluster = findAllForNamespace(namespace)
+                .stream()
+                .collect(Collectors.groupingBy(connector -> connector.getSpec().getConnectCluster()));
+
+        List<ConnectorStatusList.ConnectClusterError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        return Flux.fromIterable(connectorsByConnectCluster.entrySet())
+                .flatMap(entry -> Mono.defer(() -> kafkaConnectClient.listAllStatuses(namespace.getMetadata().getCluster(), entry.getKey()))
+                        .onErrorResume(error -> {
+                            log.error("Error getting the status of the connectors of namespace [{}] on connect [{}]: {}",
+                                    namespace.getMetadata().getName(), entry.getKey(), error.getMessage());
+                            errors.add(ConnectorStatusList.ConnectClusterError.builder()
+                                    .connectCluster(entry.getKey())
+                                    .errorMessage(error.getMessage())
+                                    .build());
+                            return Mono.just(Collections.<String, ConnectorStatus>emptyMap());
+                        })
+                        .flatMapIterable(statuses -> entry.getValue()
+                                .stream()
+                                .map(connector -> Optional.ofNullable(statuses.get(connector.getMetadata().getName()))
+                                        .map(ConnectorStatus::status)
+                                        .map(status -> buildConnectorWithStatus(connector, status))
+                                        .orElse(connector))
+                                .toList()))
+                .sort(Comparator.comparing((Connector connector) -> connector.getMetadata().getName()))
+                .collectList()
+                .map(connectors -> ConnectorStatusList.builder()
+                        .metadata(ObjectMeta.builder()
+                                .name(namespace.getMetadata().getName())
+                                .namespace(namespace.getMetadata().getName())
+                                .cluster(namespace.getMetadata().getCluster())
+                                .creationTimestamp(Date.from(Instant.now()))
+                                .build())
+                        .spec(ConnectorStatusList.ConnectorStatusListSpec.builder()
+                                .connectors(connectors)
+                                .errors(errors.stream()
+                                        .sorted(Comparator.comparing(ConnectorStatusList.ConnectClusterError::getConnectCluster))
+                                        .toList())
+                                .build())
+                        .build());
+    }
+
+    /**
+     * Copy a given connector with the given status
+     * The connector itself is not updated, as it is shared with the store
+     * @param connector The connector
+     * @param connectorStateInfo The status from the Connect cluster
+     * @return The connector with its status
+     */
+    private Connector buildConnectorWithStatus(Connector connector, ConnectorStateInfo connectorStateInfo) {
+        return Connector.builder()
+                .metadata(connector.getMetadata())
+                .spec(connector.getSpec())
+                .status(Connector.ConnectorStatus.builder()
+                        .state(Connector.TaskState.valueOf(connectorStateInfo.connector().getState()))
+                        .worker_id(connectorStateInfo.connector().getWorkerId())
+                        .tasks(connectorStateInfo.tasks()
+                                .stream()
+                                .sorted()
+                                .map(task -> Connector.TaskStatus.builder()
+                                        .id(String.valueOf(task.getId()))
+                                        .state(Connector.TaskState.valueOf(task.getState()))
+                                        .trace(task.getTrace())
+                                        .worker_id(task.getWorkerId())
+                                        .build())
+                                .toList())
+                        .lastUpdateTime(Date.from(Instant.now()))
+                        .build())
+                .build();
+    }
+
     /**
      * Validate configurations of a given connector against the namespace rules
      * @param namespace The namespace
@@ -121,24 +226,81 @@ public class ConnectorService {
         }
 
         // Connector type exists on this target connect cluster ?
-        return kafkaConnectClient.connectPlugins(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster())
+        return getConnectorPlugins(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster())
                 .map(connectorPluginInfos -> {
-                    Optional<String> connectorType = connectorPluginInfos
-                            .stream()
-                            .filter(connectPluginItem -> connectPluginItem.className().equals(connector.getSpec().getConfig().get(CONNECTOR_CLASS)))
-                            .map(connectorPluginInfo -> connectorPluginInfo.type().toString().toLowerCase(Locale.ROOT))
-                            .findFirst();
+                    ConnectorPluginInfo connectorPluginInfo = connectorPluginInfos.get(connector.getSpec().getConfig().get(CONNECTOR_CLASS));
 
-                    if (connectorType.isEmpty()) {
+                    if (connectorPluginInfo == null) {
                         return List.of("Failed to find any class that implements Connector and which name matches " +
                                 connector.getSpec().getConfig().get(CONNECTOR_CLASS));
                     }
 
-                    return namespace.getSpec().getConnectValidator() != null ? namespace.getSpec().getConnectValidator().validate(connector, connectorType.get())
+                    String connectorType = connectorPluginInfo.type().toString().toLowerCase(Locale.ROOT);
+                    return namespace.getSpec().getConnectValidator() != null ? namespace.getSpec().getConnectValidator().validate(connector, connectorType)
                             : Collections.emptyList();
                 });
     }
 
+    /**
+     * Get the connector plugins of a Connect cluster, indexed by class name
+     * The plugins are cached. Concurrent callers share a single request to the Connect cluster
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     * @return The connector plugins by class name
+     */
+    private Mono<Map<String, ConnectorPluginInfo>> getConnectorPlugins(String kafkaCluster, String connectCluster) {
+        return connectorPluginCatalogs.computeIfAbsent(new ConnectorPluginCatalogKey(kafkaCluster, connectCluster),
+                this::loadConnectorPlugins);
+    }
+
+    /**
+     * Load the connector plugins of a Connect cluster, cached until the TTL expires
+     * Errors are not cached
+     * @param key The Connect cluster
+     * @return The connector plugins by class name
+     */
+    private Mono<Map<String, ConnectorPluginInfo>> loadConnectorPlugins(ConnectorPluginCatalogKey key) {
+        return Mono.defer(() -> kafkaConnectClient.connectPlugins(key.kafkaCluster(), key.connectCluster()))
+                .map(connectorPluginInfos -> connectorPluginInfos
+                        .stream()
+                        .collect(Collectors.toMap(ConnectorPluginInfo::className, Function.identity(), (first, second) -> first)))
+                .cache(plugins -> kafkaConnectConfig.getConnectorPluginCatalogTtl(), error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    /**
+     * Refresh the cached connector plugins in background
+     * The plugins of a Connect cluster are reloaded at once when the version of its workers changed
+     * The plugins of a Connect cluster that no longer exists are forgotten
+     * @return The completion of the refresh
+     */
+    public Mono<Void> refreshConnectorPluginCatalogs() {
+        return Flux.fromIterable(connectorPluginCatalogs.keySet())
+                .flatMap(key -> Mono.defer(() -> kafkaConnectClient.version(key.kafkaCluster(), key.connectCluster()))
+                        .mapNotNull(HttpResponse::body)
+                        .doOnNext(serverInfo -> {
+                            String workerVersion = serverInfo.version() + "/" + serverInfo.commit();
+                            String previousWorkerVersion = connectWorkerVersions.put(key, workerVersion);
+                            if (previousWorkerVersion != null && !previousWorkerVersion.equals(workerVersion)) {
+                                log.info("Version of Connect cluster {} changed from {} to {}, reloading its connector plugins",
+                                        key.connectCluster(), previousWorkerVersion, workerVersion);
+                                connectorPluginCatalogs.put(key, loadConnectorPlugins(key));
+                            }
+                        })
+                        // Reload the plugins whose TTL expired, so the next validation does not wait for them
+                        .then(Mono.defer(() -> getConnectorPlugins(key.kafkaCluster(), key.connectCluster())))
+                        .onErrorResume(error -> {
+                            if (error instanceof ResourceValidationException) {
+                                log.debug("Connect cluster {} no longer exists, forgetting its connector plugins", key.connectCluster());
+                                connectorPluginCatalogs.remove(key);
+                                connectWorkerVersions.remove(key);
+                            } else {
+                                log.debug("Error while refreshing the connector plugins of Connect cluster {}", key.connectCluster(), error);
+                            }
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
     /**
      * Is given namespace owner of the given connector
      * @param namespace The namespace
@@ -175,6 +337,16 @@ public class ConnectorService {
         return connectorRepository.create(connector);
     }
 
+    /**
+     * Create or update a given list of connectors in a single batch
+     * @param connectors The connectors to create
+     * @return The created connectors
+     */
+    public List<Connector> createOrUpdateAll(List<Connector> connectors) {
+        connectorRepository.createAll(connectors);
+        return connectors;
+    }
+
     /**
      * Delete a given connector
      * @param namespace The namespace
@@ -198,6 +370,7 @@ public class ConnectorService {
 
     /**
      * List the connectors that are not synchronized to ns4kafka by namespace
+     * The ownership and the existing connectors are read once, then all the Connect clusters are queried in parallel
      * @param namespace The namespace
      * @return The list of connectors
      */
@@ -205,44 +378,105 @@ public class ConnectorService {
         ConnectorAsyncExecutor connectorAsyncExecutor = applicationContext.getBean(ConnectorAsyncExecutor.class,
                 Qualifiers.byName(namespace.getMetadata().getCluster()));
 
+        ConnectorOwnership ownership = ConnectorOwnership.of(namespace, accessControlEntryService.findAllGrantedToNamespace(namespace));
+        Set<String> existingConnectors = connectorRepository.findAllForCluster(namespace.getMetadata().getCluster())
+                .stream()
+                .map(connector -> connector.getMetadata().getName())
+                .filter(ownership::isOwnerOf)
+                .collect(Collectors.toSet());
+
         // Get all connectors from all connect clusters
-        List<Flux<Connector>> connectors = Stream.concat(namespace.getSpec().getConnectClusters().stream(),
-                connectClusterService.findAllByNamespaceWrite(namespace)
-                        .stream()
-                        .map(connectCluster -> connectCluster.getMetadata().getName()))
-                .map(connectClusterName -> connectorAsyncExecutor.collectBrokerConnectors(connectClusterName)
-                        .flatMapIterable(brokerConnectors -> brokerConnectors)
-                        // That belongs to this namespace
-                        .filter(connector -> isNamespaceOwnerOfConnect(namespace, connector.getMetadata().getName()))
-                        // And aren't in ns4kafka storage
-                        .filter(connector -> findByName(namespace, connector.getMetadata().getName()).isEmpty()))
+        List<String> connectClusters = Stream.concat(namespace.getSpec().getConnectClusters().stream(),
+                        connectClusterService.findAllByNamespaceWrite(namespace)
+                                .stream()
+                                .map(connectCluster -> connectCluster.getMetadata().getName()))
+                .distinct()
                 .toList();
 
-        return Flux.concat(connectors).collectList();
+        return Flux.fromIterable(connectClusters)
+                .flatMap(connectorAsyncExecutor::collectBrokerConnectors)
+                .flatMapIterable(brokerConnectors -> brokerConnectors)
+                // That belongs to this namespace
+                .filter(connector -> ownership.isOwnerOf(connector.getMetadata().getName()))
+                // And aren't in ns4kafka storage
+                .filter(connector -> !existingConnectors.contains(connector.getMetadata().getName()))
+                .collectList();
     }
 
     /**
-     * Restart a given connector
+     * Restart a given connector and its tasks
+     * Use the bulk restart API when the Kafka Connect supports it, restart the tasks one by one otherwise
      * @param namespace The namespace
      * @param connector The connector
+     * @param onlyFailed Whether only the failed tasks should be restarted
      * @return An HTTP response
      */
-    public Mono<HttpResponse<Void>> restart(Namespace namespace, Connector connector) {
+    public Mono<HttpResponse<Void>> restart(Namespace namespace, Connector connector, boolean onlyFailed) {
+        return kafkaConnectClient.restartAll(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster(),
+                        connector.getMetadata().getName(), onlyFailed)
+                .flatMap(response -> {
+                    if (response.status() != HttpStatus.ACCEPTED) {
+                        // Kafka Connect before 3.0 only restarted the connector instance
+                        return restartTasks(namespace, connector, onlyFailed);
+                    }
+
+                    log.info("Success restarting connector [{}] and its tasks on namespace [{}] connect [{}]",
+                            connector.getMetadata().getName(),
+                            namespace.getMetadata().getName(),
+                            connector.getSpec().getConnectCluster());
+                    return Mono.just(HttpResponse.ok());
+                });
+    }
+
+    /**
+     * Restart the tasks of a given connector one by one, with a bounded concurrency
+     * @param namespace The namespace
+     * @param connector The connector
+     * @param onlyFailed Whether only the failed tasks should be restarted
+     * @return An HTTP response, or an error listing the tasks that failed to restart
+     */
+    private Mono<HttpResponse<Void>> restartTasks(Namespace namespace, Connector connector, boolean onlyFailed) {
         return kafkaConnectClient.status(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster(), connector.getMetadata().getName())
-                .flatMap(status -> {
-                            Flux<HttpResponse<Void>> responses = Flux.fromIterable(status.tasks())
-                                    .flatMap(task -> kafkaConnectClient.restart(namespace.getMetadata().getCluster(),
-                                            connector.getSpec().getConnectCluster(), connector.getMetadata().getName(), task.getId()))
-                                    .map(response -> {
-                                        log.info("Success restarting connector [{}] on namespace [{}] connect [{}]",
-                                                connector.getMetadata().getName(),
-                                                namespace.getMetadata().getName(),
-                                                connector.getSpec().getConnectCluster());
-                                        return HttpResponse.ok();
-                                    });
-
-                            return Mono.from(responses);
-                        });
+                .flatMapMany(status -> Flux.fromIterable(status.tasks()))
+                .filter(task -> !onlyFailed || FAILED.equals(task.getState()))
+                .flatMap(task -> kafkaConnectClient.restart(namespace.getMetadata().getCluster(),
+                                connector.getSpec().getConnectCluster(), connector.getMetadata().getName(), task.getId())
+                        .map(response -> new TaskRestart(task.getId(), null))
+                        .onErrorResume(error -> Mono.just(new TaskRestart(task.getId(), error.getMessage()))),
+                        kafkaConnectConfig.getConnectorTaskRestartConcurrency())
+                .collectList()
+                .flatMap(taskRestarts -> {
+                    taskRestarts.forEach(taskRestart -> {
+                        if (taskRestart.errorMessage() == null) {
+                            log.info("Success restarting task [{}] of connector [{}] on namespace [{}] connect [{}]",
+                                    taskRestart.taskId(),
+                                    connector.getMetadata().getName(),
+                                    namespace.getMetadata().getName(),
+                                    connector.getSpec().getConnectCluster());
+                        } else {
+                            log.error("Error restarting task [{}] of connector [{}] on namespace [{}] connect [{}]: {}",
+                                    taskRestart.taskId(),
+                                    connector.getMetadata().getName(),
+                                    namespace.getMetadata().getName(),
+                                    connector.getSpec().getConnectCluster(),
+                                    taskRestart.errorMessage());
+                        }
+                    });
+
+                    List<String> failedTaskRestarts = taskRestarts
+                            .stream()
+                            .filter(taskRestart -> taskRestart.errorMessage() != null)
+                            .sorted(Comparator.comparingInt(TaskRestart::taskId))
+                            .map(taskRestart -> "task " + taskRestart.taskId() + ": " + taskRestart.errorMessage())
+                            .toList();
+
+                    if (!failedTaskRestarts.isEmpty()) {
+                        return Mono.error(new IllegalStateException("Failed to restart " + failedTaskRestarts.size() + "/"
+                                + taskRestarts.size() + " tasks (" + String.join(", ", failedTaskRestarts) + ")"));
+                    }
+
+                    return Mono.just(HttpResponse.ok());
+                });
     }
 
     /**
@@ -282,4 +516,54 @@ public class ConnectorService {
                             return HttpResponse.accepted();
                         });
     }
+
+    /**
+     * A Connect cluster of a Kafka cluster
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     */
+    private record ConnectorPluginCatalogKey(String kafkaCluster, String connectCluster) {}
+
+    /**
+     * The outcome of a task restart
+     * @param taskId The task ID
+     * @param errorMessage The error message, null if the task restarted
+     */
+    private record TaskRestart(int taskId, String errorMessage) {}
+
+    /**
+     * The connectors owned by a namespace
+     * @param literals The names of the connectors owned by literal ACLs
+     * @param prefixes The prefixes of the connectors owned by prefixed ACLs
+     */
+    private record ConnectorOwnership(Set<String> literals, List<String> prefixes) {
+        /**
+         * Index the owner ACLs of the given namespace
+         * @param namespace The namespace
+         * @param accessControlEntries The ACLs granted to the namespace
+         * @return The ownership
+         */
+        static ConnectorOwnership of(Namespace namespace, List<AccessControlEntry> accessControlEntries) {
+            Map<AccessControlEntry.ResourcePatternType, List<String>> resources = accessControlEntries
+                    .stream()
+                    .filter(accessControlEntry -> accessControlEntry.getSpec().getGrantedTo().equals(namespace.getMetadata().getName()))
+                    .filter(accessControlEntry -> accessControlEntry.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
+                    .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == AccessControlEntry.ResourceType.CONNECT)
+                    .collect(Collectors.groupingBy(accessControlEntry -> accessControlEntry.getSpec().getResourcePatternType(),
+                            Collectors.mapping(accessControlEntry -> accessControlEntry.getSpec().getResource(), Collectors.toList())));
+
+            return new ConnectorOwnership(
+                    new HashSet<>(resources.getOrDefault(AccessControlEntry.ResourcePatternType.LITERAL, List.of())),
+                    resources.getOrDefault(AccessControlEntry.ResourcePatternType.PREFIXED, List.of()));
+        }
+
+        /**
+         * Is the namespace owner of the given connector ?
+         * @param connector The connector name
+         * @return true if it is, false otherwise
+         */
+        boolean isOwnerOf(String connector) {
+            return literals.contains(connector) || prefixes.stream().anyMatch(connector::startsWith);
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.ReconciliationAction;
+import com.michelin.ns4kafka.services.executors.AccessControlEntryAsyncExecutor;
+import com.michelin.ns4kafka.services.executors.ConnectorAsyncExecutor;
+import com.michelin.ns4kafka.services.executors.TopicAsyncExecutor;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@Slf4j
+@Singleton
+public class ReconciliationPlanService {
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+
+    /**
+     * Is the given cluster managed by Ns4Kafka ?
+     * @param cluster The cluster
+     * @return true if it is, false otherwise
+     */
+    public boolean isManagedCluster(String cluster) {
+        return kafkaAsyncExecutorConfigs
+                .stream()
+                .anyMatch(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(cluster));
+    }
+
+    /**
+     * Compute the changes the next synchronization of the given cluster would apply, without applying them
+     * Topics come first, then ACLs, then connectors
+     * The connectors of an unreachable connect cluster are reported by an error action instead of ending the plan
+     * @param cluster The cluster
+     * @return The reconciliation actions
+     */
+    public Flux<ReconciliationAction> plan(String cluster) {
+        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+                Qualifiers.byName(cluster));
+        AccessControlEntryAsyncExecutor accessControlEntryAsyncExecutor = applicationContext.getBean(AccessControlEntryAsyncExecutor.class,
+                Qualifiers.byName(cluster));
+        ConnectorAsyncExecutor connectorAsyncExecutor = applicationContext.getBean(ConnectorAsyncExecutor.class,
+                Qualifiers.byName(cluster));
+
+        // The topics and ACLs are read from the broker with the blocking admin client when they are not cached yet
+        return Flux.concat(
+                Mono.fromCallable(topicAsyncExecutor::plan)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(actions -> actions),
+                Mono.fromCallable(accessControlEntryAsyncExecutor::plan)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(actions -> actions),
+                Flux.defer(connectorAsyncExecutor::plan)
+                        .onErrorResume(error -> {
+                            log.error("Error while planning the connectors of Kafka cluster {}: {}", cluster, error.getMessage());
+                            return Flux.just(ReconciliationAction.error(cluster, cluster,
+                                    ReconciliationAction.ResourceType.CONNECTOR, error.getMessage()));
+                        }));
+    }
+}
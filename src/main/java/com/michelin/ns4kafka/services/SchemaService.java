@@ -1,101 +1,306 @@
 package com.michelin.ns4kafka.services;
 
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
 import com.michelin.ns4kafka.models.schema.SchemaList;
+import com.michelin.ns4kafka.models.schema.SchemaListPage;
 import com.michelin.ns4kafka.services.clients.schema.SchemaRegistryClient;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaCompatibilityRequest;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaCompatibilityResponse;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaRequest;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaResponse;
+import com.michelin.ns4kafka.utils.AvroCompatibilityUtils;
+import com.michelin.ns4kafka.utils.FingerprintUtils;
+import com.michelin.ns4kafka.utils.PrefixTrie;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Singleton
 public class SchemaService {
+    private static final Pattern SUBJECT_SUFFIX = Pattern.compile("(-key|-value)$");
+
     @Inject
     AccessControlEntryService accessControlEntryService;
 
     @Inject
     SchemaRegistryClient schemaRegistryClient;
 
+    @Inject
+    SchemaRegistryConfig schemaRegistryConfig;
+
+    private final Map<String, Mono<NavigableSet<String>>> subjectCatalogs = new ConcurrentHashMap<>();
+
+    private final Map<String, Mono<Schema.Compatibility>> subjectCompatibilities = new ConcurrentHashMap<>();
+
+    private final Map<String, LatestSchemaFingerprint> latestSchemaFingerprints = new ConcurrentHashMap<>();
+
+    private final Map<String, SubjectVersionHistory> subjectVersionHistories = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> loadingSubjectVersionHistories = new ConcurrentHashMap<>();
+
+    private final AtomicLong subjectVersionHistoryGeneration = new AtomicLong();
+
     /**
      * Get all the schemas by namespace
+     * The subjects are read from the cached catalog of the cluster
      * @param namespace The namespace
      * @return A list of schemas
      */
     public Mono<List<SchemaList>> findAllForNamespace(Namespace namespace) {
-        List<AccessControlEntry> acls = accessControlEntryService.findAllGrantedToNamespace(namespace).stream()
-                .filter(acl -> acl.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
-                .filter(acl -> acl.getSpec().getResourceType() == AccessControlEntry.ResourceType.TOPIC).toList();
+        Predicate<String> subjectOwnership = buildSubjectOwnership(namespace);
 
-        return schemaRegistryClient
-                .getSubjects(namespace.getMetadata().getCluster())
+        return getSubjectCatalog(namespace.getMetadata().getCluster())
                 .map(subjects -> subjects
                         .stream()
-                        .filter(subject -> {
-                            String underlyingTopicName = subject.replaceAll("(-key|-value)$","");
-
-                            return acls.stream().anyMatch(accessControlEntry -> switch (accessControlEntry.getSpec().getResourcePatternType()) {
-                                case PREFIXED ->
-                                        underlyingTopicName.startsWith(accessControlEntry.getSpec().getResource());
-                                case LITERAL ->
-                                        underlyingTopicName.equals(accessControlEntry.getSpec().getResource());
-                            });
-                        })
-                        .map(namespacedSubject -> SchemaList.builder()
-                                .metadata(ObjectMeta.builder()
-                                        .cluster(namespace.getMetadata().getCluster())
-                                        .namespace(namespace.getMetadata().getName())
-                                        .name(namespacedSubject)
-                                        .build())
-                                .build())
+                        .filter(subjectOwnership)
+                        .map(namespacedSubject -> buildSchemaList(namespace, namespacedSubject))
                         .collect(Collectors.toList())
                 );
     }
 
+    /**
+     * Stream all the schemas by namespace, sorted by subject
+     * The schemas are emitted one by one from the cached catalog of the cluster, without building the whole list
+     * @param namespace The namespace
+     * @return The schemas
+     */
+    public Flux<SchemaList> streamAllForNamespace(Namespace namespace) {
+        Predicate<String> subjectOwnership = buildSubjectOwnership(namespace);
+
+        return getSubjectCatalog(namespace.getMetadata().getCluster())
+                .flatMapMany(Flux::fromIterable)
+                .filter(subjectOwnership)
+                .map(namespacedSubject -> buildSchemaList(namespace, namespacedSubject));
+    }
+
+    /**
+     * Get a page of the schemas by namespace, sorted by subject
+     * The page starts after the subject of the continue token, so subjects created or deleted between two pages
+     * do not shift the next pages
+     * @param namespace The namespace
+     * @param continueToken The continue token returned by the previous page, null for the first page
+     * @param limit The maximum number of schemas of the page
+     * @return The page of schemas, with the continue token of the next page if there are more schemas
+     */
+    public Mono<SchemaListPage> findPageForNamespace(Namespace namespace, String continueToken, int limit) {
+        String lastSubject;
+        try {
+            lastSubject = continueToken == null ? null : new String(Base64.getUrlDecoder().decode(continueToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResourceValidationException(List.of("Invalid continue token " + continueToken + "."),
+                    "SchemaListPage", namespace.getMetadata().getName()));
+        }
+
+        Predicate<String> subjectOwnership = buildSubjectOwnership(namespace);
+
+        return getSubjectCatalog(namespace.getMetadata().getCluster())
+                .map(subjects -> {
+                    // One more subject is read to know if there is a next page
+                    List<String> pageSubjects = (lastSubject == null ? subjects : subjects.tailSet(lastSubject, false))
+                            .stream()
+                            .filter(subjectOwnership)
+                            .limit(limit + 1L)
+                            .toList();
+
+                    List<SchemaList> items = pageSubjects
+                            .stream()
+                            .limit(limit)
+                            .map(namespacedSubject -> buildSchemaList(namespace, namespacedSubject))
+                            .toList();
+
+                    return SchemaListPage.builder()
+                            .items(items)
+                            .continueToken(pageSubjects.size() > limit ? Base64.getUrlEncoder().withoutPadding()
+                                    .encodeToString(pageSubjects.get(limit - 1).getBytes(StandardCharsets.UTF_8)) : null)
+                            .build();
+                });
+    }
+
+    /**
+     * Build the schema of a subject for a schema list
+     * @param namespace The namespace
+     * @param subject The subject
+     * @return The schema
+     */
+    private SchemaList buildSchemaList(Namespace namespace, String subject) {
+        return SchemaList.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(namespace.getMetadata().getCluster())
+                        .namespace(namespace.getMetadata().getName())
+                        .name(subject)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Refresh the cached subject catalogs with the subjects of the schema registries
+     * Only the added and removed subjects are applied to the catalogs
+     * @return Nothing
+     */
+    public Mono<Void> refreshSubjectCatalogs() {
+        return Flux.fromIterable(subjectCatalogs.entrySet())
+                .flatMap(entry -> entry.getValue()
+                        .zipWith(schemaRegistryClient.getSubjects(entry.getKey()))
+                        .doOnNext(catalogAndSubjects -> {
+                            Set<String> subjectCatalog = catalogAndSubjects.getT1();
+                            Set<String> subjects = new HashSet<>(catalogAndSubjects.getT2());
+
+                            List<String> removedSubjects = subjectCatalog.stream()
+                                    .filter(subject -> !subjects.contains(subject))
+                                    .toList();
+                            List<String> addedSubjects = subjects.stream()
+                                    .filter(subject -> !subjectCatalog.contains(subject))
+                                    .toList();
+
+                            removedSubjects.forEach(subjectCatalog::remove);
+                            subjectCatalog.addAll(addedSubjects);
+
+                            if (!addedSubjects.isEmpty() || !removedSubjects.isEmpty()) {
+                                log.debug("Subject catalog of cluster {} refreshed: {} subjects added, {} removed",
+                                        entry.getKey(), addedSubjects.size(), removedSubjects.size());
+                            }
+                        })
+                        .onErrorResume(error -> {
+                            log.debug("Error while refreshing the subject catalog of cluster {}", entry.getKey(), error);
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * Get the cached subject catalog of a cluster, loading it from the schema registry on first call
+     * @param cluster The cluster
+     * @return The subjects, sorted by name
+     */
+    private Mono<NavigableSet<String>> getSubjectCatalog(String cluster) {
+        return subjectCatalogs.computeIfAbsent(cluster, key -> schemaRegistryClient.getSubjects(key)
+                .<NavigableSet<String>>map(ConcurrentSkipListSet::new)
+                // Keep the catalog once loaded, but retry the load after an error
+                .cache(subjects -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    /**
+     * Apply a change made through ns4kafka to the subject catalog of a cluster, when it is loaded
+     * @param cluster The cluster
+     * @param update The change
+     */
+    private void updateSubjectCatalog(String cluster, Consumer<Set<String>> update) {
+        Mono<NavigableSet<String>> subjectCatalog = subjectCatalogs.get(cluster);
+        if (subjectCatalog != null) {
+            subjectCatalog.subscribe(update, error -> log.debug("Subject catalog of cluster {} is not loaded", cluster));
+        }
+    }
+
     /**
      * Get the last version of a schema by namespace and subject
+     * The last version and the compatibility of the subject are fetched concurrently
      *
      * @param namespace The namespace
      * @param subject The subject
      * @return A schema
      */
     public Mono<Schema> getLatestSubject(Namespace namespace, String subject) {
-        return schemaRegistryClient
-                .getLatestSubject(namespace.getMetadata().getCluster(), subject)
-                .flatMap(latestSubjectOptional -> schemaRegistryClient
-                    .getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), subject)
-                    .map(Optional::of)
-                    .defaultIfEmpty(Optional.empty())
-                    .map(currentCompatibilityOptional -> {
-                        Schema.Compatibility compatibility = currentCompatibilityOptional.isPresent() ? currentCompatibilityOptional.get().compatibilityLevel() : Schema.Compatibility.GLOBAL;
-
-                        return Schema.builder()
-                                .metadata(ObjectMeta.builder()
-                                        .cluster(namespace.getMetadata().getCluster())
-                                        .namespace(namespace.getMetadata().getName())
-                                        .name(latestSubjectOptional.subject())
-                                        .build())
-                                .spec(Schema.SchemaSpec.builder()
-                                        .id(latestSubjectOptional.id())
-                                        .version(latestSubjectOptional.version())
-                                        .compatibility(compatibility)
-                                        .schema(latestSubjectOptional.schema())
-                                        .schemaType(latestSubjectOptional.schemaType() == null ? Schema.SchemaType.AVRO :
-                                                Schema.SchemaType.valueOf(latestSubjectOptional.schemaType()))
-                                        .build())
-                                .build();
-                    }));
+        return Mono.zip(schemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), subject),
+                        getCurrentCompatibility(namespace.getMetadata().getCluster(), subject))
+                .map(latestSubjectAndCompatibility -> {
+                    SchemaResponse latestSubject = latestSubjectAndCompatibility.getT1();
+
+                    Schema schema = Schema.builder()
+                            .metadata(ObjectMeta.builder()
+                                    .cluster(namespace.getMetadata().getCluster())
+                                    .namespace(namespace.getMetadata().getName())
+                                    .name(latestSubject.subject())
+                                    .build())
+                            .spec(Schema.SchemaSpec.builder()
+                                    .id(latestSubject.id())
+                                    .version(latestSubject.version())
+                                    .compatibility(latestSubjectAndCompatibility.getT2())
+                                    .schema(latestSubject.schema())
+                                    .schemaType(latestSubject.schemaType() == null ? Schema.SchemaType.AVRO :
+                                            Schema.SchemaType.valueOf(latestSubject.schemaType()))
+                                    .references(latestSubject.references())
+                                    .build())
+                            .build();
+
+                    rememberLatestSchema(namespace.getMetadata().getCluster(), subject, schema.getSpec());
+                    return schema;
+                });
+    }
+
+    /**
+     * Is the given schema the latest version of its subject ?
+     * The schema is compared with the fingerprint of the latest version known by ns4kafka, without calling the Schema Registry
+     * @param namespace The namespace
+     * @param schema The schema
+     * @return true if the schema is the known latest version, false if it differs or if the latest version is unknown
+     */
+    public boolean isLatestSchema(Namespace namespace, Schema schema) {
+        LatestSchemaFingerprint latestSchemaFingerprint = latestSchemaFingerprints
+                .get(namespace.getMetadata().getCluster() + "/" + schema.getMetadata().getName());
+
+        return latestSchemaFingerprint != null
+                && latestSchemaFingerprint.expiresAt().isAfter(Instant.now())
+                && latestSchemaFingerprint.fingerprint().equals(FingerprintUtils.fingerprint(schema.getSpec()));
+    }
+
+    /**
+     * Remember the fingerprint of the latest version of a subject
+     * @param cluster The cluster
+     * @param subject The subject
+     * @param schema The latest version of the subject
+     */
+    private void rememberLatestSchema(String cluster, String subject, Schema.SchemaSpec schema) {
+        latestSchemaFingerprints.put(cluster + "/" + subject, new LatestSchemaFingerprint(FingerprintUtils.fingerprint(schema),
+                Instant.now().plus(schemaRegistryConfig.getLatestSchemaFingerprintCacheTtl())));
+    }
+
+    /**
+     * Get the compatibility of a subject, GLOBAL when the subject has none
+     * The compatibilities are cached until they are updated through ns4kafka, or until their TTL expires
+     *
+     * @param cluster The cluster
+     * @param subject The subject
+     * @return The compatibility
+     */
+    public Mono<Schema.Compatibility> getCurrentCompatibility(String cluster, String subject) {
+        return subjectCompatibilities.computeIfAbsent(cluster + "/" + subject, key -> schemaRegistryClient
+                .getCurrentCompatibilityBySubject(cluster, subject)
+                .map(SchemaCompatibilityResponse::compatibilityLevel)
+                .defaultIfEmpty(Schema.Compatibility.GLOBAL)
+                .cache(compatibility -> schemaRegistryConfig.getSubjectCompatibilityCacheTtl(), error -> Duration.ZERO, () -> Duration.ZERO));
     }
 
     /**
@@ -113,6 +318,12 @@ public class SchemaService {
                                 .schema(schema.getSpec().getSchema())
                                 .references(schema.getSpec().getReferences())
                                 .build())
+                .doOnNext(response -> {
+                    updateSubjectCatalog(namespace.getMetadata().getCluster(), subjects -> subjects.add(schema.getMetadata().getName()));
+                    // A schema identical to an older version is not registered again, but re-applying it would not change anything either
+                    rememberLatestSchema(namespace.getMetadata().getCluster(), schema.getMetadata().getName(), schema.getSpec());
+                    invalidateSubjectVersionHistory(namespace.getMetadata().getCluster(), schema.getMetadata().getName());
+                })
                 .map(SchemaResponse::id);
     }
 
@@ -127,7 +338,13 @@ public class SchemaService {
                 .deleteSubject(namespace.getMetadata().getCluster(), subject, false)
                 .flatMap(ids -> schemaRegistryClient.
                         deleteSubject(namespace.getMetadata().getCluster(),
-                                subject, true));
+                                subject, true))
+                .doOnNext(ids -> updateSubjectCatalog(namespace.getMetadata().getCluster(), subjects -> subjects.remove(subject)))
+                .doFinally(signalType -> {
+                    subjectCompatibilities.remove(namespace.getMetadata().getCluster() + "/" + subject);
+                    latestSchemaFingerprints.remove(namespace.getMetadata().getCluster() + "/" + subject);
+                    invalidateSubjectVersionHistory(namespace.getMetadata().getCluster(), subject);
+                });
     }
 
     /**
@@ -138,6 +355,104 @@ public class SchemaService {
      * @return A list of errors
      */
     public Mono<List<String>> validateSchemaCompatibility(String cluster, Schema schema) {
+        return validateSchemaCompatibilityLocally(cluster, schema)
+                .switchIfEmpty(Mono.defer(() -> validateSchemaCompatibilityWithRegistry(cluster, schema)));
+    }
+
+    /**
+     * Validate the compatibility of an Avro schema without references locally, against the cached versions of its subject
+     * The local check is skipped when it is disabled, or when the versions of the subject are not cached yet. Their caching is then
+     * started in background. Only the latest version is cached, unless the compatibility of the subject is transitive
+     *
+     * @param cluster The cluster
+     * @param schema The schema to validate
+     * @return A list of errors, or empty if the compatibility cannot be checked locally
+     */
+    private Mono<List<String>> validateSchemaCompatibilityLocally(String cluster, Schema schema) {
+        if (!schemaRegistryConfig.isLocalCompatibilityCheck()
+                || schema.getSpec().getSchemaType() != Schema.SchemaType.AVRO
+                || (schema.getSpec().getReferences() != null && !schema.getSpec().getReferences().isEmpty())) {
+            return Mono.empty();
+        }
+
+        String subject = schema.getMetadata().getName();
+        return getCurrentCompatibility(cluster, subject)
+                .flatMap(compatibility -> {
+                    boolean transitive = isTransitive(compatibility);
+                    SubjectVersionHistory subjectVersionHistory = subjectVersionHistories.get(cluster + "/" + subject);
+                    if (subjectVersionHistory == null || subjectVersionHistory.expiresAt().isBefore(Instant.now())
+                            || (transitive && !subjectVersionHistory.allVersions())) {
+                        loadSubjectVersionHistory(cluster, subject, transitive);
+                        return Mono.empty();
+                    }
+
+                    return Mono.justOrEmpty(AvroCompatibilityUtils.checkCompatibility(schema.getSpec().getSchema(),
+                            subjectVersionHistory.schemas(), compatibility));
+                });
+    }
+
+    /**
+     * Cache the versions of a subject in background, for the local compatibility checks
+     * Each load gets its own generation, so a load finishing after the subject changed does not overwrite a newer history
+     *
+     * @param cluster The cluster
+     * @param subject The subject
+     * @param allVersions Whether all the versions are loaded, or only the latest one
+     */
+    private void loadSubjectVersionHistory(String cluster, String subject, boolean allVersions) {
+        String key = cluster + "/" + subject;
+        long generation = subjectVersionHistoryGeneration.incrementAndGet();
+        if (loadingSubjectVersionHistories.putIfAbsent(key, generation) != null) {
+            return;
+        }
+
+        Mono<List<SchemaResponse>> versions = Mono.defer(() -> allVersions ? schemaRegistryClient.getAllSubjectVersions(cluster, subject)
+                : schemaRegistryClient.getLatestSubject(cluster, subject).map(List::of).defaultIfEmpty(List.of()));
+
+        versions.subscribe(schemas -> {
+                    // The subject may have changed while its versions were loading
+                    if (loadingSubjectVersionHistories.remove(key, generation)) {
+                        subjectVersionHistories.put(key, new SubjectVersionHistory(schemas.stream()
+                                .collect(Collectors.toMap(SchemaResponse::version, SchemaResponse::schema, (first, second) -> second, TreeMap::new)),
+                                allVersions, Instant.now().plus(schemaRegistryConfig.getSubjectVersionHistoryCacheTtl())));
+                    }
+                }, error -> {
+                    loadingSubjectVersionHistories.remove(key, generation);
+                    log.warn("Error loading the versions of subject {} of Kafka cluster {}.", subject, cluster, error);
+                });
+    }
+
+    /**
+     * Check if a compatibility applies to all the versions of a subject, or only to the latest one
+     *
+     * @param compatibility The compatibility
+     * @return true if the compatibility is transitive, false otherwise
+     */
+    private static boolean isTransitive(Schema.Compatibility compatibility) {
+        return compatibility == Schema.Compatibility.BACKWARD_TRANSITIVE
+                || compatibility == Schema.Compatibility.FORWARD_TRANSITIVE
+                || compatibility == Schema.Compatibility.FULL_TRANSITIVE;
+    }
+
+    /**
+     * Forget the cached versions of a subject
+     *
+     * @param cluster The cluster
+     * @param subject The subject
+     */
+    private void invalidateSubjectVersionHistory(String cluster, String subject) {
+        subjectVersionHistories.remove(cluster + "/" + subject);
+        loadingSubjectVersionHistories.remove(cluster + "/" + subject);
+    }
+
+    /**
+     * Validate the schema compatibility with the Schema Registry
+     *
+     * @param cluster The cluster
+     * @param schema The schema to validate
+     * @return A list of errors
+     */
+    private Mono<List<String>> validateSchemaCompatibilityWithRegistry(String cluster, Schema schema) {
         return schemaRegistryClient.validateSchemaCompatibility(cluster, schema.getMetadata().getName(), SchemaRequest.builder()
                         .schemaType(String.valueOf(schema.getSpec().getSchemaType()))
                         .schema(schema.getSpec().getSchema())
@@ -166,13 +481,16 @@ public class SchemaService {
      * @param compatibility The compatibility to apply
      */
     public Mono<SchemaCompatibilityResponse> updateSubjectCompatibility(Namespace namespace, Schema schema, Schema.Compatibility compatibility) {
+        Mono<SchemaCompatibilityResponse> response;
         if (compatibility.equals(Schema.Compatibility.GLOBAL)) {
-            return schemaRegistryClient.deleteCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), schema.getMetadata().getName());
+            response = schemaRegistryClient.deleteCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), schema.getMetadata().getName());
         } else {
-            return schemaRegistryClient.updateSubjectCompatibility(namespace.getMetadata().getCluster(),
+            response = schemaRegistryClient.updateSubjectCompatibility(namespace.getMetadata().getCluster(),
                     schema.getMetadata().getName(), SchemaCompatibilityRequest.builder()
                             .compatibility(compatibility.toString()).build());
         }
+
+        return response.doFinally(signalType -> subjectCompatibilities.remove(namespace.getMetadata().getCluster() + "/" + schema.getMetadata().getName()));
     }
 
     /**
@@ -183,8 +501,150 @@ public class SchemaService {
      * @return true if it's owner, false otherwise
      */
     public boolean isNamespaceOwnerOfSubject(Namespace namespace, String subjectName) {
-        String underlyingTopicName = subjectName.replaceAll("(-key|-value)$","");
+        String underlyingTopicName = getUnderlyingTopicName(subjectName);
         return accessControlEntryService.isNamespaceOwnerOfResource(namespace.getMetadata().getName(), AccessControlEntry.ResourceType.TOPIC,
                 underlyingTopicName);
     }
+
+    /**
+     * Find the subjects the namespace is not owner of
+     * The ACLs of the namespace are read once for all the subjects
+     *
+     * @param namespace The namespace
+     * @param subjects The subjects
+     * @return The subjects the namespace is not owner of
+     */
+    public Set<String> findNotOwnedSubjects(Namespace namespace, Collection<String> subjects) {
+        Predicate<String> subjectOwnership = buildSubjectOwnership(namespace);
+        return subjects.stream()
+                .filter(subject -> !subjectOwnership.test(subject))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Group the schemas by depth of references, so the schemas of a group only reference subjects
+     * outside the given schemas or registered by the previous groups
+     * The schemas referencing each other circularly are left out of the groups
+     *
+     * @param schemas The schemas
+     * @return The groups of schemas, in registration order
+     */
+    public List<List<Schema>> groupByReferenceDepth(List<Schema> schemas) {
+        Set<String> pendingSubjects = schemas.stream()
+                .map(schema -> schema.getMetadata().getName())
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<List<Schema>> groups = new ArrayList<>();
+        List<Schema> pendingSchemas = schemas;
+        while (!pendingSchemas.isEmpty()) {
+            Map<Boolean, List<Schema>> readySchemas = pendingSchemas.stream()
+                    .collect(Collectors.partitioningBy(schema -> schema.getSpec().getReferences() == null || schema.getSpec().getReferences()
+                            .stream()
+                            .noneMatch(reference -> pendingSubjects.contains(reference.getSubject())
+                                    && !schema.getMetadata().getName().equals(reference.getSubject()))));
+
+            if (readySchemas.get(true).isEmpty()) {
+                break;
+            }
+
+            groups.add(readySchemas.get(true));
+            readySchemas.get(true).forEach(schema -> pendingSubjects.remove(schema.getMetadata().getName()));
+            pendingSchemas = readySchemas.get(false);
+        }
+
+        return groups;
+    }
+
+    /**
+     * Find the subjects on a reference cycle among the given schemas
+     * A schema referencing its own subject is not considered circular
+     *
+     * @param schemas The schemas
+     * @return The subjects referencing themselves through the other schemas
+     */
+    public Set<String> findCircularSubjects(List<Schema> schemas) {
+        Set<String> subjects = schemas.stream()
+                .map(schema -> schema.getMetadata().getName())
+                .collect(Collectors.toSet());
+
+        Map<String, Set<String>> referencedSubjects = new HashMap<>();
+        schemas.forEach(schema -> referencedSubjects
+                .computeIfAbsent(schema.getMetadata().getName(), subject -> new HashSet<>())
+                .addAll(schema.getSpec().getReferences() == null ? List.of() : schema.getSpec().getReferences()
+                        .stream()
+                        .map(Schema.SchemaSpec.Reference::getSubject)
+                        .filter(subjects::contains)
+                        .filter(subject -> !subject.equals(schema.getMetadata().getName()))
+                        .toList()));
+
+        Set<String> circularSubjects = new HashSet<>();
+        referencedSubjects.keySet().forEach(subject -> {
+            Deque<String> toVisit = new ArrayDeque<>(referencedSubjects.get(subject));
+            Set<String> visited = new HashSet<>();
+            while (!toVisit.isEmpty()) {
+                String current = toVisit.pop();
+                if (current.equals(subject)) {
+                    circularSubjects.add(subject);
+                    return;
+                }
+
+                if (visited.add(current)) {
+                    toVisit.addAll(referencedSubjects.getOrDefault(current, Set.of()));
+                }
+            }
+        });
+
+        return circularSubjects;
+    }
+
+    /**
+     * Build the ownership check of the subjects of a namespace, from its owner ACLs on topics
+     *
+     * @param namespace The namespace
+     * @return The ownership check, true if the namespace is owner of the subject
+     */
+    private Predicate<String> buildSubjectOwnership(Namespace namespace) {
+        List<AccessControlEntry> acls = accessControlEntryService.findAllGrantedToNamespace(namespace).stream()
+                .filter(acl -> acl.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
+                .filter(acl -> acl.getSpec().getResourceType() == AccessControlEntry.ResourceType.TOPIC).toList();
+
+        Set<String> literalTopics = new HashSet<>();
+        PrefixTrie prefixedTopics = new PrefixTrie();
+        acls.forEach(accessControlEntry -> {
+            switch (accessControlEntry.getSpec().getResourcePatternType()) {
+                case PREFIXED -> prefixedTopics.add(accessControlEntry.getSpec().getResource());
+                case LITERAL -> literalTopics.add(accessControlEntry.getSpec().getResource());
+            }
+        });
+
+        return subject -> {
+            String underlyingTopicName = getUnderlyingTopicName(subject);
+            return literalTopics.contains(underlyingTopicName) || prefixedTopics.matchesPrefixOf(underlyingTopicName);
+        };
+    }
+
+    /**
+     * Get the name of the topic of a subject, by removing its key or value suffix
+     *
+     * @param subject The name of the subject
+     * @return The name of the topic
+     */
+    private static String getUnderlyingTopicName(String subject) {
+        return SUBJECT_SUFFIX.matcher(subject).replaceAll("");
+    }
+
+    /**
+     * The fingerprint of the latest version of a subject
+     * @param fingerprint The fingerprint
+     * @param expiresAt The expiration of the fingerprint
+     */
+    private record LatestSchemaFingerprint(String fingerprint, Instant expiresAt) {}
+
+    /**
+     * The versions of a subject
+     * @param schemas The schemas of the subject, by version
+     * @param allVersions Whether all the versions of the subject are known, or only the latest one
+     * @param expiresAt The expiration of the versions
+     */
+    private record SubjectVersionHistory(SortedMap<Integer, String> schemas, boolean allVersions, Instant expiresAt) {}
 }
@@ -36,6 +36,15 @@ public class StreamService {
                 .toList();
     }
 
+    /**
+     * Find all Kafka Streams by given cluster
+     * @param cluster The cluster
+     * @return A list of Kafka Streams
+     */
+    public List<KafkaStream> findAllForCluster(String cluster) {
+        return streamRepository.findAllForCluster(cluster);
+    }
+
     /**
      * Find a Kafka Streams by namespace and name
      * @param namespace The namespace
@@ -0,0 +1,79 @@
+package com.michelin.ns4kafka.services.clients;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.micronaut.http.client.HttpClientRegistry;
+import io.micronaut.http.client.LoadBalancer;
+import io.micronaut.http.client.ServiceHttpClientConfiguration;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.net.URL;
+import java.util.function.Consumer;
+
+/**
+ * Create HTTP clients with their own connection pool, on top of the configuration of an HTTP service.
+ * The clients are built by the HTTP client registry of the application, so they share its event loops,
+ * its codecs and its SSL and proxy settings.
+ */
+@Singleton
+public class PooledHttpClientFactory {
+    @Inject
+    BeanContext beanContext;
+
+    @Inject
+    HttpClientRegistry<HttpClient> httpClientRegistry;
+
+    @Inject
+    HttpClientConfiguration defaultHttpClientConfiguration;
+
+    /**
+     * Create an HTTP client with its own connection pool
+     * The caller is responsible for closing the client
+     * @param serviceId The HTTP service whose configuration is used, from micronaut.http.services
+     * @param url The URL called by the client
+     * @param overrides The pool and timeout settings applied over the configuration of the service
+     * @return The HTTP client
+     */
+    public HttpClient createHttpClient(String serviceId, URL url, Consumer<HttpClientConfiguration> overrides) {
+        return httpClientRegistry.resolveClient(null, LoadBalancer.fixed(url),
+                buildHttpClientConfiguration(serviceId, overrides), beanContext);
+    }
+
+    /**
+     * Build the configuration of a pooled HTTP client
+     * The configuration of the service is used when defined, the default HTTP client configuration otherwise
+     * @param serviceId The HTTP service
+     * @param overrides The settings applied over the configuration of the service
+     * @return The HTTP client configuration
+     */
+    HttpClientConfiguration buildHttpClientConfiguration(String serviceId, Consumer<HttpClientConfiguration> overrides) {
+        HttpClientConfiguration serviceConfiguration = beanContext
+                .findBean(ServiceHttpClientConfiguration.class, Qualifiers.byName(serviceId))
+                .<HttpClientConfiguration>map(configuration -> configuration)
+                .orElse(defaultHttpClientConfiguration);
+
+        PooledHttpClientConfiguration configuration = new PooledHttpClientConfiguration(serviceConfiguration);
+        configuration.getConnectionPoolConfiguration().setEnabled(true);
+        overrides.accept(configuration);
+        return configuration;
+    }
+
+    /**
+     * A copy of an HTTP client configuration, with a connection pool of its own
+     */
+    static class PooledHttpClientConfiguration extends HttpClientConfiguration {
+        private final ConnectionPoolConfiguration connectionPoolConfiguration = new ConnectionPoolConfiguration();
+
+        PooledHttpClientConfiguration(HttpClientConfiguration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        public ConnectionPoolConfiguration getConnectionPoolConfiguration() {
+            return connectionPoolConfiguration;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.michelin.ns4kafka.services.clients.connect;
+
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Track the health of each Kafka Connect cluster, so the failing ones are not called until they recover.
+ * A breaker opens after consecutive failures. Once its backoff elapses, it lets a single call through (half-open):
+ * a success closes it, a failure opens it again with a doubled backoff.
+ */
+@Slf4j
+@Singleton
+public class KafkaConnectCircuitBreaker {
+    @Inject
+    KafkaConnectConfig kafkaConnectConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    Clock clock = Clock.systemUTC();
+
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Check a call to the given Kafka Connect is allowed
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return true if it is, false if the circuit breaker is open
+     */
+    public boolean tryAcquire(String kafkaCluster, String connectCluster) {
+        Breaker breaker = getBreaker(kafkaCluster, connectCluster);
+        synchronized (breaker) {
+            return switch (breaker.state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false;
+                case OPEN -> {
+                    if (clock.instant().isBefore(breaker.openUntil)) {
+                        yield false;
+                    }
+
+                    log.info("Probing Kafka Connect {} of Kafka cluster {} after {}.", connectCluster, kafkaCluster, breaker.backoff);
+                    breaker.state = State.HALF_OPEN;
+                    yield true;
+                }
+            };
+        }
+    }
+
+    /**
+     * Record a successful call to the given Kafka Connect
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     */
+    public void onSuccess(String kafkaCluster, String connectCluster) {
+        Breaker breaker = getBreaker(kafkaCluster, connectCluster);
+        synchronized (breaker) {
+            if (breaker.state != State.CLOSED) {
+                log.info("Kafka Connect {} of Kafka cluster {} is reachable again.", connectCluster, kafkaCluster);
+            }
+
+            breaker.state = State.CLOSED;
+            breaker.failures = 0;
+            breaker.backoff = null;
+        }
+    }
+
+    /**
+     * Record a call to the given Kafka Connect that did not complete
+     * Only the errors telling the Kafka Connect is unhealthy count as failures
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param error The error
+     */
+    public void onError(String kafkaCluster, String connectCluster, Throwable error) {
+        if (!isUnhealthy(error)) {
+            onSuccess(kafkaCluster, connectCluster);
+            return;
+        }
+
+        Breaker breaker = getBreaker(kafkaCluster, connectCluster);
+        synchronized (breaker) {
+            breaker.failures++;
+            if (breaker.state == State.HALF_OPEN || breaker.failures >= kafkaConnectConfig.getCircuitBreakerFailureThreshold()) {
+                breaker.backoff = breaker.backoff == null ? kafkaConnectConfig.getCircuitBreakerInitialBackoff()
+                        : min(breaker.backoff.multipliedBy(2), kafkaConnectConfig.getCircuitBreakerMaxBackoff());
+                breaker.openUntil = clock.instant().plus(breaker.backoff);
+                breaker.state = State.OPEN;
+                log.warn("Kafka Connect {} of Kafka cluster {} is unhealthy, calls are suspended for {}.",
+                        connectCluster, kafkaCluster, breaker.backoff);
+            }
+        }
+    }
+
+    /**
+     * Release the probe of the given Kafka Connect, when it has been cancelled
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     */
+    public void onCancel(String kafkaCluster, String connectCluster) {
+        Breaker breaker = getBreaker(kafkaCluster, connectCluster);
+        synchronized (breaker) {
+            if (breaker.state == State.HALF_OPEN) {
+                breaker.state = State.OPEN;
+            }
+        }
+    }
+
+    /**
+     * Get the circuit breaker state of the given Kafka Connect
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return The state
+     */
+    public State getState(String kafkaCluster, String connectCluster) {
+        return getBreaker(kafkaCluster, connectCluster).state;
+    }
+
+    /**
+     * Get the circuit breaker of the given Kafka Connect, and register its metrics on creation
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return The circuit breaker
+     */
+    private Breaker getBreaker(String kafkaCluster, String connectCluster) {
+        return breakers.computeIfAbsent(kafkaCluster + "/" + connectCluster, key -> {
+            Breaker breaker = new Breaker();
+            Gauge.builder("ns4kafka.connect.circuit.breaker.state", breaker, value -> value.state.ordinal())
+                    .description("Circuit breaker state of the Kafka Connect: 0 closed, 1 half-open, 2 open")
+                    .tag("kafka.cluster", kafkaCluster)
+                    .tag("connect.cluster", connectCluster)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * Does the given error tell the Kafka Connect is unhealthy ?
+     * Server errors, timeouts and connection errors do. Client errors do not
+     * @param error The error
+     * @return true if it does, false otherwise
+     */
+    private static boolean isUnhealthy(Throwable error) {
+        if (error instanceof HttpClientResponseException responseException) {
+            return responseException.getStatus().getCode() >= 500;
+        }
+
+        return error instanceof HttpClientException;
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private static class Breaker {
+        private volatile State state = State.CLOSED;
+        private int failures;
+        private Duration backoff;
+        private Instant openUntil;
+    }
+}
@@ -3,36 +3,41 @@ package com.michelin.ns4kafka.services.clients.connect;
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.config.SecurityConfig;
 import com.michelin.ns4kafka.models.connect.cluster.ConnectCluster;
+import com.michelin.ns4kafka.models.connect.cluster.ConnectClusterStoreEvent;
 import com.michelin.ns4kafka.repositories.ConnectClusterRepository;
 import com.michelin.ns4kafka.services.clients.connect.entities.*;
 import com.michelin.ns4kafka.utils.EncryptionUtils;
+import com.michelin.ns4kafka.utils.exceptions.ConnectClusterUnavailableException;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.client.HttpClient;
-import io.micronaut.http.client.annotation.Client;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 @Slf4j
 @Singleton
-public class KafkaConnectClient {
+public class KafkaConnectClient implements ApplicationEventListener<ConnectClusterStoreEvent> {
     private static final String CONNECTORS = "/connectors/";
 
     @Inject
-    @Client(id = "kafka-connect")
-    private HttpClient httpClient;
+    private KafkaConnectHttpClientRegistry httpClientRegistry;
 
     @Inject
     private List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
@@ -43,17 +48,24 @@ public class KafkaConnectClient {
     @Inject
     private SecurityConfig securityConfig;
 
+    @Inject
+    private KafkaConnectCircuitBreaker circuitBreaker;
+
+    private final Map<String, KafkaConnectHttpConfig> kafkaConnectConfigs = new ConcurrentHashMap<>();
+
+    private final AtomicLong kafkaConnectConfigsGeneration = new AtomicLong();
+
     /**
      * Get the Kafka connect version
      * @param kafkaCluster The Kafka cluster
      * @param connectCluster The Kafka Connect
      * @return The version
      */
-    public HttpResponse<ServerInfo> version(String kafkaCluster, String connectCluster) {
+    public Mono<HttpResponse<ServerInfo>> version(String kafkaCluster, String connectCluster) {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), "/")))
                 .basicAuth(config.getUsername(), config.getPassword());
-        return httpClient.toBlocking().exchange(request, ServerInfo.class);
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, ServerInfo.class));
     }
 
     /**
@@ -66,7 +78,20 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), "/connectors?expand=info&expand=status")))
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.retrieve(request, Argument.mapOf(String.class, ConnectorStatus.class)));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, Argument.mapOf(String.class, ConnectorStatus.class)));
+    }
+
+    /**
+     * List the status of all connectors
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return The connectors, with the status only
+     */
+    public Mono<Map<String, ConnectorStatus>> listAllStatuses(String kafkaCluster, String connectCluster) {
+        KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
+        HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), "/connectors?expand=status")))
+                .basicAuth(config.getUsername(), config.getPassword());
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, Argument.mapOf(String.class, ConnectorStatus.class)));
     }
 
     /**
@@ -81,7 +106,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.PUT(URI.create(StringUtils.prependUri(config.getUrl(), "/connector-plugins/" + connectorClass + "/config/validate")), connectorSpecs)
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.retrieve(request, ConfigInfos.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, ConfigInfos.class));
     }
 
     /**
@@ -96,7 +121,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.PUT(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/config")), connectorSpecs)
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.retrieve(request, ConnectorInfo.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, ConnectorInfo.class));
     }
 
     /**
@@ -110,7 +135,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.DELETE(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector)))
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.exchange(request, Void.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, Void.class));
     }
 
     /**
@@ -123,7 +148,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), "/connector-plugins")))
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.retrieve(request, Argument.listOf(ConnectorPluginInfo.class)));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, Argument.listOf(ConnectorPluginInfo.class)));
     }
 
     /**
@@ -137,7 +162,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/status")))
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.retrieve(request, ConnectorStateInfo.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.retrieve(request, ConnectorStateInfo.class));
     }
 
     /**
@@ -152,7 +177,23 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.POST(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/tasks/" + taskId + "/restart")), null)
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.exchange(request, Void.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, Void.class));
+    }
+
+    /**
+     * Restart a connector and its tasks in a single call
+     * Kafka Connect before 3.0 ignores the query parameters and only restarts the connector, answering 204 instead of 202
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param connector The connector
+     * @param onlyFailed Whether only the failed connector and tasks should be restarted
+     * @return The restart response
+     */
+    public Mono<HttpResponse<ConnectorStateInfo>> restartAll(String kafkaCluster, String connectCluster, String connector, boolean onlyFailed) {
+        KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
+        HttpRequest<?> request = HttpRequest.POST(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/restart?includeTasks=true&onlyFailed=" + onlyFailed)), null)
+                .basicAuth(config.getUsername(), config.getPassword());
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, ConnectorStateInfo.class));
     }
 
     /**
@@ -166,7 +207,7 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.PUT(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/pause")), null)
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.exchange(request, Void.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, Void.class));
     }
 
     /**
@@ -180,16 +221,95 @@ public class KafkaConnectClient {
         KafkaConnectHttpConfig config = getKafkaConnectConfig(kafkaCluster, connectCluster);
         HttpRequest<?> request = HttpRequest.PUT(URI.create(StringUtils.prependUri(config.getUrl(), CONNECTORS + connector + "/resume")), null)
                 .basicAuth(config.getUsername(), config.getPassword());
-        return Mono.from(httpClient.exchange(request, Void.class));
+        return guard(kafkaCluster, connectCluster, config, httpClient -> httpClient.exchange(request, Void.class));
+    }
+
+    /**
+     * Get the circuit breaker state of a Kafka Connect
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return The state
+     */
+    public String circuitBreakerState(String kafkaCluster, String connectCluster) {
+        return circuitBreaker.getState(kafkaCluster, connectCluster).toString();
+    }
+
+    /**
+     * Send a request with the HTTP client of the Kafka Connect, through its circuit breaker
+     * The request fails fast while the circuit breaker is open
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param config The Kafka Connect configuration
+     * @param request The request
+     * @return The response
+     * @param <T> The type of the response
+     */
+    private <T> Mono<T> guard(String kafkaCluster, String connectCluster, KafkaConnectHttpConfig config,
+                              Function<HttpClient, Publisher<T>> request) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire(kafkaCluster, connectCluster)) {
+                return Mono.error(unavailable(kafkaCluster, connectCluster));
+            }
+
+            HttpClient httpClient = httpClientRegistry.getHttpClient(kafkaCluster, connectCluster, config.getUrl());
+            return httpClientRegistry.track(kafkaCluster, connectCluster, config.getUrl(), Mono.from(request.apply(httpClient)))
+                    .doOnSuccess(response -> circuitBreaker.onSuccess(kafkaCluster, connectCluster))
+                    .doOnError(error -> circuitBreaker.onError(kafkaCluster, connectCluster, error))
+                    .doOnCancel(() -> circuitBreaker.onCancel(kafkaCluster, connectCluster));
+        });
+    }
+
+    private ConnectClusterUnavailableException unavailable(String kafkaCluster, String connectCluster) {
+        return new ConnectClusterUnavailableException("Kafka Connect \"" + connectCluster + "\" of Kafka cluster \""
+                + kafkaCluster + "\" is unavailable, calls are suspended until it recovers");
     }
 
     /**
      * Get the Kafka Connect configuration
+     * The resolved configurations are cached until a Connect cluster changes in the store
      * @param kafkaCluster The Kafka cluster
      * @param connectCluster The Kafka Connect
      * @return The Kafka Connect configuration
      */
     public KafkaConnectClient.KafkaConnectHttpConfig getKafkaConnectConfig(String kafkaCluster, String connectCluster) {
+        String key = kafkaCluster + "/" + connectCluster;
+        KafkaConnectHttpConfig config = kafkaConnectConfigs.get(key);
+        if (config != null) {
+            return config;
+        }
+
+        long generation = kafkaConnectConfigsGeneration.get();
+        config = resolveKafkaConnectConfig(kafkaCluster, connectCluster);
+
+        // Do not cache a configuration resolved before the last change of the Connect clusters
+        synchronized (kafkaConnectConfigs) {
+            if (generation == kafkaConnectConfigsGeneration.get()) {
+                kafkaConnectConfigs.put(key, config);
+            }
+        }
+
+        return config;
+    }
+
+    /**
+     * Forget the resolved Kafka Connect configurations when a Connect cluster changes
+     * @param event The Connect cluster store event
+     */
+    @Override
+    public void onApplicationEvent(ConnectClusterStoreEvent event) {
+        synchronized (kafkaConnectConfigs) {
+            kafkaConnectConfigsGeneration.incrementAndGet();
+            kafkaConnectConfigs.clear();
+        }
+    }
+
+    /**
+     * Resolve the Kafka Connect configuration, either from the self deployed Connect clusters or from the configuration
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @return The Kafka Connect configuration
+     */
+    private KafkaConnectClient.KafkaConnectHttpConfig resolveKafkaConnectConfig(String kafkaCluster, String connectCluster) {
         Optional<KafkaAsyncExecutorConfig> config = kafkaAsyncExecutorConfigs.stream()
                 .filter(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(kafkaCluster))
                 .findFirst();
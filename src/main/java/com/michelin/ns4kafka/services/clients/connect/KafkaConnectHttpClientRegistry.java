@@ -0,0 +1,183 @@
+package com.michelin.ns4kafka.services.clients.connect;
+
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
+import com.michelin.ns4kafka.services.clients.PooledHttpClientFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.HttpClientConfiguration;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hold one HTTP client per Kafka Connect, each with its own connection pool,
+ * so a slow Kafka Connect only exhausts its own connections.
+ * The clients are configured by the kafka-connect HTTP service and share its event loop group.
+ */
+@Slf4j
+@Singleton
+public class KafkaConnectHttpClientRegistry {
+    @Inject
+    KafkaConnectConfig kafkaConnectConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    PooledHttpClientFactory pooledHttpClientFactory;
+
+    private final Map<String, PooledHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    private final Set<HttpClient> retiredHttpClients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Get the HTTP client of the given Kafka Connect
+     * A new client is created when the Kafka Connect is called for the first time, or when its URL changed
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param url The URL of the Kafka Connect
+     * @return The HTTP client
+     */
+    public HttpClient getHttpClient(String kafkaCluster, String connectCluster, String url) {
+        return getPooledHttpClient(kafkaCluster, connectCluster, url).httpClient;
+    }
+
+    /**
+     * Track a request to the given Kafka Connect, for the saturation metrics of its connection pool
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param url The URL of the Kafka Connect
+     * @param request The request
+     * @return The response
+     * @param <T> The type of the response
+     */
+    public <T> Mono<T> track(String kafkaCluster, String connectCluster, String url, Mono<T> request) {
+        PooledHttpClient pooledHttpClient = getPooledHttpClient(kafkaCluster, connectCluster, url);
+        return Mono.defer(() -> {
+            if (pooledHttpClient.inFlightRequests.incrementAndGet() > kafkaConnectConfig.getHttpMaxConnections()) {
+                pooledHttpClient.saturatedRequests.increment();
+            }
+
+            return request.doFinally(signalType -> pooledHttpClient.inFlightRequests.decrementAndGet());
+        });
+    }
+
+    /**
+     * Close the HTTP clients on shutdown
+     */
+    @PreDestroy
+    public void close() {
+        httpClients.values().forEach(pooledHttpClient -> pooledHttpClient.httpClient.close());
+        httpClients.clear();
+        retiredHttpClients.forEach(HttpClient::close);
+        retiredHttpClients.clear();
+    }
+
+    /**
+     * Get the HTTP client of the given Kafka Connect with its metrics
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param url The URL of the Kafka Connect
+     * @return The HTTP client with its metrics
+     */
+    private PooledHttpClient getPooledHttpClient(String kafkaCluster, String connectCluster, String url) {
+        return httpClients.compute(kafkaCluster + "/" + connectCluster, (key, existing) -> {
+            if (existing != null && existing.url.equals(url)) {
+                return existing;
+            }
+
+            if (existing != null) {
+                log.info("URL of Kafka Connect {} of Kafka cluster {} changed, recreating its HTTP client.", connectCluster, kafkaCluster);
+                retire(existing.httpClient);
+            }
+
+            return createPooledHttpClient(kafkaCluster, connectCluster, url, existing);
+        });
+    }
+
+    /**
+     * Close a replaced HTTP client once the requests it may still be running are over
+     * The requests in flight either complete or time out within the connect and read timeouts
+     * @param httpClient The replaced HTTP client
+     */
+    private void retire(HttpClient httpClient) {
+        retiredHttpClients.add(httpClient);
+        Mono.delay(kafkaConnectConfig.getHttpConnectTimeout().plus(kafkaConnectConfig.getHttpReadTimeout()))
+                .subscribe(ignored -> {
+                    if (retiredHttpClients.remove(httpClient)) {
+                        httpClient.close();
+                    }
+                });
+    }
+
+    /**
+     * Create the HTTP client of the given Kafka Connect, and register its metrics on first creation
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Kafka Connect
+     * @param url The URL of the Kafka Connect
+     * @param previous The previous HTTP client of the Kafka Connect, if any
+     * @return The HTTP client with its metrics
+     */
+    private PooledHttpClient createPooledHttpClient(String kafkaCluster, String connectCluster, String url, PooledHttpClient previous) {
+        HttpClient httpClient;
+        try {
+            httpClient = pooledHttpClientFactory.createHttpClient("kafka-connect", new URL(url), this::configureHttpClient);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid URL " + url + " for Kafka Connect " + connectCluster, e);
+        }
+
+        if (previous != null) {
+            return new PooledHttpClient(url, httpClient, previous.inFlightRequests, previous.saturatedRequests);
+        }
+
+        AtomicInteger inFlightRequests = new AtomicInteger();
+        Gauge.builder("ns4kafka.connect.http.requests.in.flight", inFlightRequests, AtomicInteger::get)
+                .description("Requests sent or waiting for a connection to the Kafka Connect")
+                .tag("kafka.cluster", kafkaCluster)
+                .tag("connect.cluster", connectCluster)
+                .register(meterRegistry);
+
+        Counter saturatedRequests = Counter.builder("ns4kafka.connect.http.requests.saturated")
+                .description("Requests that waited for a connection because the pool of the Kafka Connect was full")
+                .tag("kafka.cluster", kafkaCluster)
+                .tag("connect.cluster", connectCluster)
+                .register(meterRegistry);
+
+        return new PooledHttpClient(url, httpClient, inFlightRequests, saturatedRequests);
+    }
+
+    /**
+     * Apply the pool and timeout settings of the Kafka Connect HTTP clients
+     * @param configuration The HTTP client configuration
+     */
+    private void configureHttpClient(HttpClientConfiguration configuration) {
+        configuration.setConnectTimeout(kafkaConnectConfig.getHttpConnectTimeout());
+        configuration.setReadTimeout(kafkaConnectConfig.getHttpReadTimeout());
+        configuration.setConnectionPoolIdleTimeout(kafkaConnectConfig.getHttpKeepAliveTimeout());
+
+        HttpClientConfiguration.ConnectionPoolConfiguration connectionPoolConfiguration = configuration.getConnectionPoolConfiguration();
+        connectionPoolConfiguration.setMaxConnections(kafkaConnectConfig.getHttpMaxConnections());
+        connectionPoolConfiguration.setMaxPendingAcquires(kafkaConnectConfig.getHttpMaxPendingRequests());
+        connectionPoolConfiguration.setAcquireTimeout(kafkaConnectConfig.getHttpConnectTimeout());
+    }
+
+    /**
+     * The HTTP client of a Kafka Connect
+     * @param url The URL of the Kafka Connect
+     * @param httpClient The HTTP client
+     * @param inFlightRequests The number of requests in flight
+     * @param saturatedRequests The requests that waited for a connection
+     */
+    private record PooledHttpClient(String url, HttpClient httpClient, AtomicInteger inFlightRequests, Counter saturatedRequests) {}
+}
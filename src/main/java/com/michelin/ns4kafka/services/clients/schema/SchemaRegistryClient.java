@@ -1,37 +1,35 @@
 package com.michelin.ns4kafka.services.clients.schema;
 
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
 import com.michelin.ns4kafka.services.clients.schema.entities.*;
-import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.core.type.Argument;
-import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpStatus;
-import io.micronaut.http.MutableHttpRequest;
-import io.micronaut.http.client.HttpClient;
-import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.net.URI;
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Singleton
 public class SchemaRegistryClient {
     private static final String SUBJECTS = "/subjects/";
     private static final String CONFIG = "/config/";
+    private static final String ALL_SUBJECTS = "/subjects";
+    private static final String LATEST_VERSION = "/versions/latest";
 
     @Inject
-    @Client(id = "schema-registry")
-    private HttpClient httpClient;
+    private SchemaRegistryHttpClientRegistry httpClientRegistry;
 
     @Inject
-    private List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+    private SchemaRegistryRequestCoalescer requestCoalescer;
+
+    @Inject
+    private SchemaRegistryConfig schemaRegistryConfig;
 
     /**
      * List subjects
@@ -39,10 +37,10 @@ public class SchemaRegistryClient {
      * @return A list of subjects
      */
     public Mono<List<String>> getSubjects(String kafkaCluster) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), "/subjects")))
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, Argument.listOf(String.class)));
+        return requestCoalescer.coalesce(kafkaCluster, ALL_SUBJECTS, () -> {
+            SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+            return endpoint.retrieve(HttpRequest.GET(endpoint.uri(ALL_SUBJECTS)), Argument.listOf(String.class));
+        });
     }
 
     /**
@@ -52,12 +50,30 @@ public class SchemaRegistryClient {
      * @return A version of a subject
      */
     public Mono<SchemaResponse> getLatestSubject(String kafkaCluster, String subject) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), SUBJECTS + subject + "/versions/latest")))
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaResponse.class))
+        return requestCoalescer.coalesce(kafkaCluster, SUBJECTS + subject + LATEST_VERSION, () -> {
+            SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+            return endpoint.retrieve(HttpRequest.GET(endpoint.uri(SUBJECTS + subject + LATEST_VERSION)), Argument.of(SchemaResponse.class))
+                    .onErrorResume(HttpClientResponseException.class,
+                            ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.empty() : Mono.error(ex));
+        });
+    }
+
+    /**
+     * Get all the versions of a subject, from the oldest to the latest
+     * The versions are loaded with a bounded concurrency, not to burst the Schema Registry
+     * @param kafkaCluster The Kafka cluster
+     * @param subject The subject
+     * @return The versions of the subject, empty if the subject does not exist
+     */
+    public Mono<List<SchemaResponse>> getAllSubjectVersions(String kafkaCluster, String subject) {
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.GET(endpoint.uri(SUBJECTS + subject + "/versions")), Argument.listOf(Integer.class))
                 .onErrorResume(HttpClientResponseException.class,
-                        ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.empty() : Mono.error(ex));
+                        ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.just(List.<Integer>of()) : Mono.error(ex))
+                .flatMapMany(Flux::fromIterable)
+                .flatMapSequential(version -> endpoint.retrieve(HttpRequest.GET(endpoint.uri(SUBJECTS + subject + "/versions/" + version)),
+                        Argument.of(SchemaResponse.class)), schemaRegistryConfig.getSubjectVersionHistoryConcurrency())
+                .collectList();
     }
 
     /**
@@ -68,10 +84,12 @@ public class SchemaRegistryClient {
      * @return The response of the registration
      */
     public Mono<SchemaResponse> register(String kafkaCluster, String subject, SchemaRequest body) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.POST(URI.create(StringUtils.prependUri(config.getUrl(), SUBJECTS + subject + "/versions")), body)
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaResponse.class));
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.POST(endpoint.uri(SUBJECTS + subject + "/versions"), body), Argument.of(SchemaResponse.class))
+                .doFinally(signalType -> {
+                    requestCoalescer.invalidate(kafkaCluster, ALL_SUBJECTS);
+                    requestCoalescer.invalidate(kafkaCluster, SUBJECTS + subject + LATEST_VERSION);
+                });
     }
 
     /**
@@ -82,10 +100,13 @@ public class SchemaRegistryClient {
      * @return The versions of the deleted subject
      */
     public Mono<Integer[]> deleteSubject(String kafkaCluster, String subject, boolean hardDelete) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        MutableHttpRequest<?> request = HttpRequest.DELETE(URI.create(StringUtils.prependUri(config.getUrl(), SUBJECTS + subject + "?permanent=" + hardDelete)))
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, Integer[].class));
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.DELETE(endpoint.uri(SUBJECTS + subject + "?permanent=" + hardDelete)), Argument.of(Integer[].class))
+                .doFinally(signalType -> {
+                    requestCoalescer.invalidate(kafkaCluster, ALL_SUBJECTS);
+                    requestCoalescer.invalidate(kafkaCluster, SUBJECTS + subject + LATEST_VERSION);
+                    requestCoalescer.invalidate(kafkaCluster, CONFIG + subject);
+                });
     }
 
     /**
@@ -96,10 +117,9 @@ public class SchemaRegistryClient {
      * @return The schema compatibility validation
      */
     public Mono<SchemaCompatibilityCheckResponse> validateSchemaCompatibility(String kafkaCluster, String subject, SchemaRequest body) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.POST(URI.create(StringUtils.prependUri(config.getUrl(), "/compatibility/subjects/" + subject + "/versions?verbose=true")), body)
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaCompatibilityCheckResponse.class))
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.POST(endpoint.uri("/compatibility/subjects/" + subject + "/versions?verbose=true"), body),
+                        Argument.of(SchemaCompatibilityCheckResponse.class))
                 .onErrorResume(HttpClientResponseException.class,
                         ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.empty() : Mono.error(ex));
     }
@@ -112,10 +132,9 @@ public class SchemaRegistryClient {
      * @return The schema compatibility update
      */
     public Mono<SchemaCompatibilityResponse> updateSubjectCompatibility(String kafkaCluster, String subject, SchemaCompatibilityRequest body) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.PUT(URI.create(StringUtils.prependUri(config.getUrl(), CONFIG + subject)), body)
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaCompatibilityResponse.class));
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.PUT(endpoint.uri(CONFIG + subject), body), Argument.of(SchemaCompatibilityResponse.class))
+                .doFinally(signalType -> requestCoalescer.invalidate(kafkaCluster, CONFIG + subject));
     }
 
     /**
@@ -125,12 +144,12 @@ public class SchemaRegistryClient {
      * @return The current schema compatibility
      */
     public Mono<SchemaCompatibilityResponse> getCurrentCompatibilityBySubject(String kafkaCluster, String subject) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        HttpRequest<?> request = HttpRequest.GET(URI.create(StringUtils.prependUri(config.getUrl(), CONFIG + subject)))
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaCompatibilityResponse.class))
-                .onErrorResume(HttpClientResponseException.class,
-                        ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.empty() : Mono.error(ex));
+        return requestCoalescer.coalesce(kafkaCluster, CONFIG + subject, () -> {
+            SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+            return endpoint.retrieve(HttpRequest.GET(endpoint.uri(CONFIG + subject)), Argument.of(SchemaCompatibilityResponse.class))
+                    .onErrorResume(HttpClientResponseException.class,
+                            ex -> ex.getStatus().equals(HttpStatus.NOT_FOUND) ? Mono.empty() : Mono.error(ex));
+        });
     }
 
     /**
@@ -140,30 +159,8 @@ public class SchemaRegistryClient {
      * @return The deleted schema compatibility
      */
     public Mono<SchemaCompatibilityResponse> deleteCurrentCompatibilityBySubject(String kafkaCluster, String subject) {
-        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
-        MutableHttpRequest<?> request = HttpRequest.DELETE(URI.create(StringUtils.prependUri(config.getUrl(), CONFIG + subject)))
-                .basicAuth(config.getBasicAuthUsername(), config.getBasicAuthPassword());
-        return Mono.from(httpClient.retrieve(request, SchemaCompatibilityResponse.class));
-    }
-
-    /**
-     * Get the schema registry of the given Kafka cluster
-     * @param kafkaCluster The Kafka cluster
-     * @return The schema registry configuration
-     */
-    private KafkaAsyncExecutorConfig.RegistryConfig getSchemaRegistry(String kafkaCluster) {
-        Optional<KafkaAsyncExecutorConfig> config = kafkaAsyncExecutorConfigs.stream()
-                .filter(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(kafkaCluster))
-                .findFirst();
-
-        if (config.isEmpty()) {
-            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] not found"), null, null);
-        }
-
-        if (config.get().getSchemaRegistry() == null) {
-            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] has no schema registry"), null, null);
-        }
-
-        return config.get().getSchemaRegistry();
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint endpoint = httpClientRegistry.getEndpoint(kafkaCluster);
+        return endpoint.retrieve(HttpRequest.DELETE(endpoint.uri(CONFIG + subject)), Argument.of(SchemaCompatibilityResponse.class))
+                .doFinally(signalType -> requestCoalescer.invalidate(kafkaCluster, CONFIG + subject));
     }
 }
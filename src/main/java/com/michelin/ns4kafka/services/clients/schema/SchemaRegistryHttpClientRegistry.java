@@ -0,0 +1,185 @@
+package com.michelin.ns4kafka.services.clients.schema;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
+import com.michelin.ns4kafka.services.clients.PooledHttpClientFactory;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.HttpClientConfiguration;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hold one HTTP client per Schema Registry, each with its own connection pool,
+ * along with the base URL and the authorization of the Schema Registry computed once.
+ */
+@Singleton
+public class SchemaRegistryHttpClientRegistry {
+    @Inject
+    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+
+    @Inject
+    SchemaRegistryConfig schemaRegistryConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    PooledHttpClientFactory pooledHttpClientFactory;
+
+    private final Map<String, SchemaRegistryEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Get the Schema Registry of the given Kafka cluster
+     * @param kafkaCluster The Kafka cluster
+     * @return The Schema Registry
+     */
+    public SchemaRegistryEndpoint getEndpoint(String kafkaCluster) {
+        SchemaRegistryEndpoint endpoint = endpoints.get(kafkaCluster);
+        if (endpoint != null) {
+            return endpoint;
+        }
+
+        KafkaAsyncExecutorConfig.RegistryConfig config = getSchemaRegistry(kafkaCluster);
+        return endpoints.computeIfAbsent(kafkaCluster, key -> createEndpoint(kafkaCluster, config));
+    }
+
+    /**
+     * Close the HTTP clients on shutdown
+     */
+    @PreDestroy
+    public void close() {
+        endpoints.values().forEach(endpoint -> endpoint.httpClient.close());
+        endpoints.clear();
+    }
+
+    /**
+     * Get the Schema Registry configuration of the given Kafka cluster
+     * @param kafkaCluster The Kafka cluster
+     * @return The Schema Registry configuration
+     */
+    private KafkaAsyncExecutorConfig.RegistryConfig getSchemaRegistry(String kafkaCluster) {
+        Optional<KafkaAsyncExecutorConfig> config = kafkaAsyncExecutorConfigs.stream()
+                .filter(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(kafkaCluster))
+                .findFirst();
+
+        if (config.isEmpty()) {
+            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] not found"), null, null);
+        }
+
+        if (config.get().getSchemaRegistry() == null) {
+            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] has no schema registry"), null, null);
+        }
+
+        return config.get().getSchemaRegistry();
+    }
+
+    /**
+     * Create the HTTP client of the given Schema Registry and register its metrics
+     * @param kafkaCluster The Kafka cluster
+     * @param config The Schema Registry configuration
+     * @return The Schema Registry
+     */
+    private SchemaRegistryEndpoint createEndpoint(String kafkaCluster, KafkaAsyncExecutorConfig.RegistryConfig config) {
+        HttpClient httpClient;
+        try {
+            httpClient = pooledHttpClientFactory.createHttpClient("schema-registry", new URL(config.getUrl()), this::configureHttpClient);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid URL " + config.getUrl() + " for the schema registry of Kafka cluster " + kafkaCluster, e);
+        }
+
+        AtomicInteger inFlightRequests = new AtomicInteger();
+        Gauge.builder("ns4kafka.schema.registry.http.requests.in.flight", inFlightRequests, AtomicInteger::get)
+                .description("Requests sent or waiting for a connection to the Schema Registry")
+                .tag("kafka.cluster", kafkaCluster)
+                .register(meterRegistry);
+
+        Counter saturatedRequests = Counter.builder("ns4kafka.schema.registry.http.requests.saturated")
+                .description("Requests that waited for a connection because the pool of the Schema Registry was full")
+                .tag("kafka.cluster", kafkaCluster)
+                .register(meterRegistry);
+
+        String authorization = config.getBasicAuthUsername() == null ? null : "Basic " + Base64.getEncoder()
+                .encodeToString((config.getBasicAuthUsername() + ":" + config.getBasicAuthPassword()).getBytes(StandardCharsets.UTF_8));
+
+        return new SchemaRegistryEndpoint(config.getUrl().replaceAll("/+$", ""), authorization, httpClient,
+                schemaRegistryConfig.getHttpMaxConnections(), inFlightRequests, saturatedRequests);
+    }
+
+    /**
+     * Apply the pool and timeout settings of the Schema Registry HTTP clients
+     * @param configuration The HTTP client configuration
+     */
+    private void configureHttpClient(HttpClientConfiguration configuration) {
+        configuration.setConnectTimeout(schemaRegistryConfig.getHttpConnectTimeout());
+        configuration.setReadTimeout(schemaRegistryConfig.getHttpReadTimeout());
+        configuration.setConnectionPoolIdleTimeout(schemaRegistryConfig.getHttpKeepAliveTimeout());
+
+        HttpClientConfiguration.ConnectionPoolConfiguration connectionPoolConfiguration = configuration.getConnectionPoolConfiguration();
+        connectionPoolConfiguration.setMaxConnections(schemaRegistryConfig.getHttpMaxConnections());
+        connectionPoolConfiguration.setMaxPendingAcquires(schemaRegistryConfig.getHttpMaxPendingRequests());
+        connectionPoolConfiguration.setAcquireTimeout(schemaRegistryConfig.getHttpConnectTimeout());
+    }
+
+    /**
+     * The Schema Registry of a Kafka cluster
+     * @param baseUrl The URL of the Schema Registry, without trailing slash
+     * @param authorization The basic authorization header, null if the Schema Registry is not secured
+     * @param httpClient The HTTP client
+     * @param maxConnections The size of the connection pool
+     * @param inFlightRequests The number of requests in flight
+     * @param saturatedRequests The requests that waited for a connection
+     */
+    public record SchemaRegistryEndpoint(String baseUrl, String authorization, HttpClient httpClient, int maxConnections,
+                                         AtomicInteger inFlightRequests, Counter saturatedRequests) {
+        /**
+         * Get the URI of a path of the Schema Registry
+         * @param path The path, starting with a slash
+         * @return The URI
+         */
+        public URI uri(String path) {
+            return URI.create(baseUrl + path);
+        }
+
+        /**
+         * Send a request to the Schema Registry, tracked for the saturation metrics of its connection pool
+         * @param request The request
+         * @param responseType The type of the response
+         * @return The response
+         * @param <T> The type of the response
+         */
+        public <T> Mono<T> retrieve(MutableHttpRequest<?> request, Argument<T> responseType) {
+            if (authorization != null) {
+                request.header(HttpHeaders.AUTHORIZATION, authorization);
+            }
+
+            return Mono.defer(() -> {
+                if (inFlightRequests.incrementAndGet() > maxConnections) {
+                    saturatedRequests.increment();
+                }
+
+                return Mono.from(httpClient.retrieve(request, responseType))
+                        .doFinally(signalType -> inFlightRequests.decrementAndGet());
+            });
+        }
+    }
+}
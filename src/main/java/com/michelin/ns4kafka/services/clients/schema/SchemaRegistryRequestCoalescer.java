@@ -0,0 +1,87 @@
+package com.michelin.ns4kafka.services.clients.schema;
+
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Merge the identical Schema Registry requests in flight into a single request, whose response is shared by all the callers.
+ * The responses can also be kept for a short time after they are received.
+ */
+@Singleton
+public class SchemaRegistryRequestCoalescer {
+    @Inject
+    SchemaRegistryConfig schemaRegistryConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<?>> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Send a request, or share the response of the identical request in flight
+     * @param kafkaCluster The Kafka cluster
+     * @param key The key identifying the request, such as its path
+     * @param request The request
+     * @return The response
+     * @param <T> The type of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String kafkaCluster, String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            String requestKey = kafkaCluster + key;
+            AtomicBoolean sent = new AtomicBoolean();
+            Mono<T> response = (Mono<T>) requests.computeIfAbsent(requestKey, k -> {
+                sent.set(true);
+                return share(k, request.get());
+            });
+
+            meterRegistry.counter("ns4kafka.schema.registry.requests",
+                    "kafka.cluster", kafkaCluster,
+                    "result", sent.get() ? "sent" : "coalesced").increment();
+            return response;
+        });
+    }
+
+    /**
+     * Forget the response of a request, so the next identical request is sent again
+     * @param kafkaCluster The Kafka cluster
+     * @param key The key identifying the request
+     */
+    public void invalidate(String kafkaCluster, String key) {
+        requests.remove(kafkaCluster + key);
+    }
+
+    /**
+     * Share the response of a request, until it is received or until the request cache TTL expires
+     * Errors are never kept, so the next identical request is sent again
+     * Only the shared response itself is forgotten, not a newer response stored for the same request after an invalidation
+     * @param requestKey The key of the request
+     * @param request The request
+     * @return The shared response
+     * @param <T> The type of the response
+     */
+    private <T> Mono<T> share(String requestKey, Mono<T> request) {
+        Duration requestCacheTtl = schemaRegistryConfig.getRequestCacheTtl();
+        AtomicReference<Mono<T>> sharedResponse = new AtomicReference<>();
+        sharedResponse.set(request
+                .doOnEach(signal -> {
+                    if (signal.isOnError() || (signal.isOnComplete() && requestCacheTtl.isZero())) {
+                        requests.remove(requestKey, sharedResponse.get());
+                    } else if (signal.isOnComplete()) {
+                        Mono.delay(requestCacheTtl).subscribe(tick -> requests.remove(requestKey, sharedResponse.get()));
+                    }
+                })
+                .cache());
+        return sharedResponse.get();
+    }
+}
@@ -1,7 +1,11 @@
 package com.michelin.ns4kafka.services.clients.schema.entities;
 
+import com.michelin.ns4kafka.models.schema.Schema;
 import lombok.Builder;
 
+import java.util.List;
+
 @Builder
-public record SchemaResponse(Integer id, Integer version, String subject, String schema, String schemaType) {
+public record SchemaResponse(Integer id, Integer version, String subject, String schema, String schemaType,
+                             List<Schema.SchemaSpec.Reference> references) {
 }
@@ -4,30 +4,39 @@ import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.KafkaStream;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ReconciliationAction;
 import com.michelin.ns4kafka.repositories.NamespaceRepository;
 import com.michelin.ns4kafka.repositories.kafka.KafkaStoreException;
 import com.michelin.ns4kafka.services.AccessControlEntryService;
 import com.michelin.ns4kafka.services.ConnectorService;
 import com.michelin.ns4kafka.services.StreamService;
+import com.michelin.ns4kafka.utils.BatchUtils;
+import com.michelin.ns4kafka.utils.DiffUtils;
 import io.micronaut.context.annotation.EachBean;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DeleteAclsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.common.acl.AclPermissionType;
 import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.michelin.ns4kafka.models.AccessControlEntry.ResourceType.*;
@@ -53,6 +62,16 @@ public class AccessControlEntryAsyncExecutor {
     @Inject
     NamespaceRepository namespaceRepository;
 
+    /**
+     * The ACLs built from Ns4Kafka resources during the previous synchronization, by namespace
+     */
+    private final Map<String, NamespaceAclBindings> ns4kafkaACLsByNamespace = new ConcurrentHashMap<>();
+
+    /**
+     * The managed ACLs found on the broker during the last synchronization, once synchronized
+     */
+    private volatile List<AclBinding> brokerACLsSnapshot;
+
     public AccessControlEntryAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
@@ -79,18 +98,12 @@ public class AccessControlEntryAsyncExecutor {
             // List ACLs from NS4Kafka
             List<AclBinding> ns4kafkaACLs = collectNs4KafkaACLs();
 
-            List<AclBinding> toCreate = ns4kafkaACLs.stream()
-                    .filter(aclBinding -> !brokerACLs.contains(aclBinding))
-                    .toList();
-
-            List<AclBinding> toDelete = brokerACLs.stream()
-                    .filter(aclBinding -> !ns4kafkaACLs.contains(aclBinding))
-                    .toList();
+            DiffUtils.Diff<AclBinding> diff = DiffUtils.diff(ns4kafkaACLs, brokerACLs);
+            List<AclBinding> toCreate = diff.toCreate();
+            List<AclBinding> toDelete = diff.toDelete();
 
             if (log.isDebugEnabled()) {
-                brokerACLs.stream()
-                        .filter(ns4kafkaACLs::contains)
-                        .forEach(aclBinding -> log.debug("ACLs found in broker and Ns4Kafka: " + aclBinding.toString()));
+                diff.unchanged().forEach(aclBinding -> log.debug("ACLs found in broker and Ns4Kafka: " + aclBinding.toString()));
 
                 toCreate.forEach(aclBinding -> log.debug("ACLs to create: " + aclBinding.toString()));
 
@@ -103,11 +116,19 @@ public class AccessControlEntryAsyncExecutor {
 
             // Execute toAdd list BEFORE toDelete list to avoid breaking ACL on connected user
             // such as deleting <LITERAL "toto.titi"> only to add one second later <PREFIX "toto.">
-            createACLs(toCreate);
+            List<AclBinding> createdACLs = createACLs(toCreate);
 
+            List<AclBinding> deletedACLs = List.of();
             if (kafkaAsyncExecutorConfig.isDropUnsyncAcls()) {
-                deleteACLs(toDelete);
+                deletedACLs = deleteACLs(toDelete);
             }
+
+            // Only the ACLs actually created or deleted are applied to the snapshot,
+            // so the ones that failed are planned again
+            Set<AclBinding> synchronizedBrokerACLs = new LinkedHashSet<>(brokerACLs);
+            synchronizedBrokerACLs.addAll(createdACLs);
+            deletedACLs.forEach(synchronizedBrokerACLs::remove);
+            brokerACLsSnapshot = List.copyOf(synchronizedBrokerACLs);
         } catch (KafkaStoreException | ExecutionException | TimeoutException e) {
             log.error("An error occurred collecting ACLs from broker during ACLs synchronization", e);
         } catch (InterruptedException e) {
@@ -116,46 +137,91 @@ public class AccessControlEntryAsyncExecutor {
         }
     }
 
+    /**
+     * Compute the ACL changes the next synchronization would apply, without applying them
+     * The broker ACLs found during the last synchronization are used when available
+     * @return The reconciliation actions
+     */
+    public List<ReconciliationAction> plan() throws ExecutionException, InterruptedException, TimeoutException {
+        if (!this.kafkaAsyncExecutorConfig.isManageAcls()) {
+            return List.of();
+        }
+
+        List<AclBinding> brokerACLs = brokerACLsSnapshot;
+        if (brokerACLs == null) {
+            brokerACLs = collectBrokerACLs(true);
+            brokerACLsSnapshot = brokerACLs;
+        }
+
+        DiffUtils.Diff<AclBinding> diff = DiffUtils.diff(collectNs4KafkaACLs(), brokerACLs);
+
+        List<ReconciliationAction> actions = new ArrayList<>();
+        diff.toCreate().forEach(aclBinding -> actions.add(buildReconciliationAction(aclBinding, ReconciliationAction.Action.CREATE)));
+        if (kafkaAsyncExecutorConfig.isDropUnsyncAcls()) {
+            diff.toDelete().forEach(aclBinding -> actions.add(buildReconciliationAction(aclBinding, ReconciliationAction.Action.DELETE)));
+        }
+
+        return actions;
+    }
+
+    /**
+     * Build a reconciliation action from an ACL
+     * @param aclBinding The ACL
+     * @param action The action to perform on the ACL
+     * @return The reconciliation action
+     */
+    private ReconciliationAction buildReconciliationAction(AclBinding aclBinding, ReconciliationAction.Action action) {
+        return ReconciliationAction.of(kafkaAsyncExecutorConfig.getName(), aclBinding.pattern().name(),
+                ReconciliationAction.ResourceType.ACL, action, List.of(aclBinding.toString()));
+    }
+
     /**
      * Collect the ACLs from Ns4Kafka.
      * Whenever the permission is OWNER, create 2 entries (one READ and one WRITE)
      * This is necessary to translate ns4kafka grouped AccessControlEntry (OWNER, WRITE, READ)
      * into Kafka Atomic ACLs (READ and WRITE)
+     * The ACLs of a namespace are only rebuilt when its Kafka user, its ACLs or its Kafka Streams changed
+     * since the previous synchronization
      * @return A list of ACLs
      */
     private List<AclBinding> collectNs4KafkaACLs() {
         List<Namespace> namespaces = namespaceRepository.findAllForCluster(kafkaAsyncExecutorConfig.getName());
 
-        // Converts topic, group and transaction Ns4kafka ACLs to topic and group Kafka AclBindings
-        Stream<AclBinding> aclBindingFromACLs = namespaces
+        // Index the ACLs and the Kafka Streams once for all the namespaces
+        Map<String, List<AccessControlEntry>> aclsByGrantedTo = accessControlEntryService.findAll()
                 .stream()
-                .flatMap(namespace -> accessControlEntryService.findAllGrantedToNamespace(namespace)
-                        .stream()
-                        .filter(accessControlEntry -> (List.of(TOPIC, GROUP, TRANSACTIONAL_ID).contains(accessControlEntry.getSpec().getResourceType())))
-                        .flatMap(accessControlEntry -> buildAclBindingsFromAccessControlEntry(accessControlEntry, namespace.getSpec().getKafkaUser())
-                                .stream())
-                        .distinct());
+                .collect(Collectors.groupingBy(accessControlEntry -> accessControlEntry.getSpec().getGrantedTo()));
+        List<AccessControlEntry> publicACLs = aclsByGrantedTo.getOrDefault(PUBLIC_GRANTED_TO, List.of());
 
-        // Converts KafkaStream resources to topic (CREATE/DELETE) AclBindings
-        Stream<AclBinding> aclBindingFromKStream = namespaces.stream()
-                .flatMap(namespace -> streamService.findAllForNamespace(namespace)
-                        .stream()
-                        .flatMap(kafkaStream ->
-                                buildAclBindingsFromKafkaStream(kafkaStream, namespace.getSpec().getKafkaUser()).stream()));
+        Map<String, List<KafkaStream>> kafkaStreamsByNamespace = streamService.findAllForCluster(kafkaAsyncExecutorConfig.getName())
+                .stream()
+                .collect(Collectors.groupingBy(kafkaStream -> kafkaStream.getMetadata().getNamespace()));
 
-        // Converts connect ACLs to group AclBindings (connect-)
-        Stream<AclBinding> aclBindingFromConnect = namespaces.stream()
-                .flatMap(namespace -> accessControlEntryService.findAllGrantedToNamespace(namespace)
-                        .stream()
-                        .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == AccessControlEntry.ResourceType.CONNECT)
-                        .filter(accessControlEntry -> accessControlEntry.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
-                        .flatMap(accessControlEntry ->
-                                buildAclBindingsFromConnector(accessControlEntry, namespace.getSpec().getKafkaUser()).stream()));
-
-        List<AclBinding> ns4kafkaACLs = Stream.of(aclBindingFromACLs, aclBindingFromKStream, aclBindingFromConnect)
-                .flatMap(Function.identity())
+        List<AclBinding> ns4kafkaACLs = namespaces
+                .stream()
+                .flatMap(namespace -> {
+                    List<AccessControlEntry> namespaceACLs = Stream.concat(
+                            aclsByGrantedTo.getOrDefault(namespace.getMetadata().getName(), List.of()).stream(),
+                            publicACLs.stream()).toList();
+                    List<KafkaStream> kafkaStreams = kafkaStreamsByNamespace.getOrDefault(namespace.getMetadata().getName(), List.of());
+
+                    NamespaceAclBindings namespaceAclBindings = ns4kafkaACLsByNamespace.get(namespace.getMetadata().getName());
+                    if (namespaceAclBindings == null || !namespaceAclBindings.isBuiltFrom(namespace, namespaceACLs, kafkaStreams)) {
+                        namespaceAclBindings = new NamespaceAclBindings(namespace.getSpec().getKafkaUser(), namespaceACLs, kafkaStreams,
+                                buildAclBindingsFromNamespace(namespace.getSpec().getKafkaUser(), namespaceACLs, kafkaStreams));
+                        ns4kafkaACLsByNamespace.put(namespace.getMetadata().getName(), namespaceAclBindings);
+                    }
+
+                    return namespaceAclBindings.aclBindings().stream();
+                })
                 .toList();
 
+        // Forget the namespaces that have been deleted
+        ns4kafkaACLsByNamespace.keySet().retainAll(namespaces
+                .stream()
+                .map(namespace -> namespace.getMetadata().getName())
+                .collect(Collectors.toSet()));
+
         if (log.isDebugEnabled()) {
             log.debug("ACLs found on ns4kafka : " + ns4kafkaACLs.size());
             ns4kafkaACLs.forEach(aclBinding -> log.debug(aclBinding.toString()));
@@ -164,6 +230,39 @@ public class AccessControlEntryAsyncExecutor {
         return ns4kafkaACLs;
     }
 
+    /**
+     * Build the ACLs of a namespace
+     * @param kafkaUser The Kafka user of the namespace
+     * @param namespaceACLs The Ns4Kafka ACLs granted to the namespace
+     * @param kafkaStreams The Kafka Streams of the namespace
+     * @return A list of ACLs
+     */
+    private List<AclBinding> buildAclBindingsFromNamespace(String kafkaUser, List<AccessControlEntry> namespaceACLs, List<KafkaStream> kafkaStreams) {
+        // Converts topic, group and transaction Ns4kafka ACLs to topic and group Kafka AclBindings
+        Stream<AclBinding> aclBindingFromACLs = namespaceACLs
+                .stream()
+                .filter(accessControlEntry -> (List.of(TOPIC, GROUP, TRANSACTIONAL_ID).contains(accessControlEntry.getSpec().getResourceType())))
+                .flatMap(accessControlEntry -> buildAclBindingsFromAccessControlEntry(accessControlEntry, kafkaUser)
+                        .stream())
+                .distinct();
+
+        // Converts KafkaStream resources to topic (CREATE/DELETE) AclBindings
+        Stream<AclBinding> aclBindingFromKStream = kafkaStreams
+                .stream()
+                .flatMap(kafkaStream -> buildAclBindingsFromKafkaStream(kafkaStream, kafkaUser).stream());
+
+        // Converts connect ACLs to group AclBindings (connect-)
+        Stream<AclBinding> aclBindingFromConnect = namespaceACLs
+                .stream()
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == AccessControlEntry.ResourceType.CONNECT)
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
+                .flatMap(accessControlEntry -> buildAclBindingsFromConnector(accessControlEntry, kafkaUser).stream());
+
+        return Stream.of(aclBindingFromACLs, aclBindingFromKStream, aclBindingFromConnect)
+                .flatMap(Function.identity())
+                .toList();
+    }
+
     /**
      * Collect the ACLs from broker
      *
@@ -176,9 +275,19 @@ public class AccessControlEntryAsyncExecutor {
     private List<AclBinding> collectBrokerACLs(boolean managedUsersOnly) throws ExecutionException, InterruptedException, TimeoutException {
         List<ResourceType> validResourceTypes = List.of(ResourceType.TOPIC, ResourceType.GROUP, ResourceType.TRANSACTIONAL_ID);
 
-        List<AclBinding> userACLs = getAdminClient()
-                .describeAcls(AclBindingFilter.ANY)
-                .values().get(10, TimeUnit.SECONDS)
+        // we first collect the list of Users managed in ns4kafka
+        Set<String> managedPrincipals = managedUsersOnly ? collectManagedPrincipals() : Set.of();
+
+        Collection<AclBinding> brokerACLs;
+        if (managedUsersOnly && kafkaAsyncExecutorConfig.isAclDescribeByPrincipal()) {
+            brokerACLs = describeBrokerACLsByPrincipal(managedPrincipals);
+        } else {
+            brokerACLs = getAdminClient()
+                    .describeAcls(AclBindingFilter.ANY)
+                    .values().get(10, TimeUnit.SECONDS);
+        }
+
+        List<AclBinding> userACLs = brokerACLs
                 .stream()
                 .filter(aclBinding -> validResourceTypes.contains(aclBinding.pattern().resourceType()))
                 .toList();
@@ -189,18 +298,11 @@ public class AccessControlEntryAsyncExecutor {
         }
 
         if (managedUsersOnly) {
-            // we first collect the list of Users managed in ns4kafka
-            List<String> managedUsers = namespaceRepository.findAllForCluster(kafkaAsyncExecutorConfig.getName())
-                    .stream()
-                    //1-N Namespace to KafkaUser
-                    .flatMap(namespace -> Stream.of(USER_PRINCIPAL + namespace.getSpec().getKafkaUser()))
-                    .toList();
-
             // And then filter out the AclBinding to retain only those matching
             // or having principal equal to wildcard (public).
             userACLs = userACLs
                     .stream()
-                    .filter(aclBinding -> managedUsers.contains(aclBinding.entry().principal()) ||
+                    .filter(aclBinding -> managedPrincipals.contains(aclBinding.entry().principal()) ||
                             aclBinding.entry().principal().equals(PUBLIC_GRANTED_TO))
                     .toList();
             log.debug("ACLs found on Broker (managed scope) : {}", userACLs.size());
@@ -213,6 +315,49 @@ public class AccessControlEntryAsyncExecutor {
         return userACLs;
     }
 
+    /**
+     * Collect the principals of the Kafka users managed by Ns4Kafka on the cluster
+     *
+     * @return A set of principals
+     */
+    private Set<String> collectManagedPrincipals() {
+        return namespaceRepository.findAllForCluster(kafkaAsyncExecutorConfig.getName())
+                .stream()
+                //1-N Namespace to KafkaUser
+                .map(namespace -> USER_PRINCIPAL + namespace.getSpec().getKafkaUser())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Collect the ACLs from broker with one filtered request per principal
+     * The requests are sent in parallel, up to the configured concurrency
+     *
+     * @param principals The principals
+     * @return A list of ACLs
+     * @throws ExecutionException   Any execution exception during ACLs description
+     * @throws InterruptedException Any interrupted exception during ACLs description
+     * @throws TimeoutException     Any timeout exception during ACLs description
+     */
+    private List<AclBinding> describeBrokerACLsByPrincipal(Collection<String> principals) throws ExecutionException, InterruptedException, TimeoutException {
+        List<AclBinding> aclBindings = new ArrayList<>();
+        for (List<String> chunk : BatchUtils.partition(new ArrayList<>(principals), kafkaAsyncExecutorConfig.getAclDescribeConcurrency())) {
+            List<KafkaFuture<Collection<AclBinding>>> results = chunk
+                    .stream()
+                    .map(principal -> getAdminClient()
+                            .describeAcls(new AclBindingFilter(ResourcePatternFilter.ANY,
+                                    new AccessControlEntryFilter(principal, null, AclOperation.ANY, AclPermissionType.ANY)))
+                            .values())
+                    .toList();
+
+            for (KafkaFuture<Collection<AclBinding>> result : results) {
+                aclBindings.addAll(result.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        log.debug("{} ACLs found on broker for {} principal(s)", aclBindings.size(), principals.size());
+        return aclBindings;
+    }
+
     /**
      * Convert Ns4Kafka topic/group ACL into Kafka ACL
      * @param accessControlEntry The Ns4Kafka ACL
@@ -311,26 +456,44 @@ public class AccessControlEntryAsyncExecutor {
     }
 
     /**
-     * Delete a given list of ACLs
+     * Delete a given list of ACLs, chunk by chunk
      *
      * @param toDelete The list of ACLs to delete
+     * @return The ACLs successfully deleted
      */
-    private void deleteACLs(List<AclBinding> toDelete) {
-        getAdminClient()
-                .deleteAcls(toDelete.stream()
-                        .map(AclBinding::toFilter)
-                        .toList())
-                .values().forEach((key, value) -> {
-                    try {
-                        value.get(10, TimeUnit.SECONDS);
-                        log.info("Success deleting ACL {} on {}", key, this.kafkaAsyncExecutorConfig.getName());
-                    } catch (InterruptedException e) {
-                        log.error("Error", e);
-                        Thread.currentThread().interrupt();
-                    } catch (Exception e) {
-                        log.error(String.format("Error while deleting ACL %s on %s", key, this.kafkaAsyncExecutorConfig.getName()), e);
-                    }
-                });
+    private List<AclBinding> deleteACLs(List<AclBinding> toDelete) {
+        List<AclBinding> deletedACLs = new ArrayList<>();
+        List<List<AclBinding>> chunks = BatchUtils.partition(toDelete, kafkaAsyncExecutorConfig.getAclBatchSize());
+        for (int i = 0; i < chunks.size() && !Thread.currentThread().isInterrupted(); i++) {
+            Map<AclBindingFilter, AclBinding> aclsByFilter = chunks.get(i)
+                    .stream()
+                    .collect(Collectors.toMap(AclBinding::toFilter, Function.identity(), (first, second) -> first));
+
+            int failures = 0;
+            for (Map.Entry<AclBindingFilter, KafkaFuture<DeleteAclsResult.FilterResults>> entry : getAdminClient()
+                    .deleteAcls(chunks.get(i).stream()
+                            .map(AclBinding::toFilter)
+                            .toList())
+                    .values()
+                    .entrySet()) {
+                try {
+                    entry.getValue().get(10, TimeUnit.SECONDS);
+                    deletedACLs.add(aclsByFilter.get(entry.getKey()));
+                    log.info("Success deleting ACL {} on {}", entry.getKey(), this.kafkaAsyncExecutorConfig.getName());
+                } catch (InterruptedException e) {
+                    log.error("Error", e);
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failures++;
+                    log.error(String.format("Error while deleting ACL %s on %s", entry.getKey(), this.kafkaAsyncExecutorConfig.getName()), e);
+                }
+            }
+
+            reportChunk("deleting", i, chunks, failures);
+            waitBeforeNextChunk(i, chunks);
+        }
+
+        return deletedACLs;
     }
 
     /**
@@ -371,24 +534,115 @@ public class AccessControlEntryAsyncExecutor {
     }
 
     /**
-     * Create a given list of ACLs
+     * Create a given list of ACLs, chunk by chunk
      *
      * @param toCreate The list of ACLs to create
+     * @return The ACLs successfully created
      */
-    private void createACLs(List<AclBinding> toCreate) {
-        getAdminClient().createAcls(toCreate)
-                .values()
-                .forEach((key, value) -> {
-                    try {
-                        value.get(10, TimeUnit.SECONDS);
-                        log.info("Success creating ACL {} on {}", key, this.kafkaAsyncExecutorConfig.getName());
-                    } catch (InterruptedException e) {
-                        log.error("Error", e);
-                        Thread.currentThread().interrupt();
-                    } catch (Exception e) {
-                        log.error(String.format("Error while creating ACL %s on %s", key, this.kafkaAsyncExecutorConfig.getName()), e);
-                    }
-                });
+    private List<AclBinding> createACLs(List<AclBinding> toCreate) {
+        List<AclBinding> createdACLs = new ArrayList<>();
+        List<List<AclBinding>> chunks = BatchUtils.partition(toCreate, kafkaAsyncExecutorConfig.getAclBatchSize());
+        for (int i = 0; i < chunks.size() && !Thread.currentThread().isInterrupted(); i++) {
+            int failures = 0;
+            for (Map.Entry<AclBinding, KafkaFuture<Void>> entry : getAdminClient()
+                    .createAcls(chunks.get(i))
+                    .values()
+                    .entrySet()) {
+                try {
+                    entry.getValue().get(10, TimeUnit.SECONDS);
+                    createdACLs.add(entry.getKey());
+                    log.info("Success creating ACL {} on {}", entry.getKey(), this.kafkaAsyncExecutorConfig.getName());
+                } catch (InterruptedException e) {
+                    log.error("Error", e);
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failures++;
+                    log.error(String.format("Error while creating ACL %s on %s", entry.getKey(), this.kafkaAsyncExecutorConfig.getName()), e);
+                }
+            }
+
+            reportChunk("creating", i, chunks, failures);
+            waitBeforeNextChunk(i, chunks);
+        }
+
+        return createdACLs;
+    }
+
+    /**
+     * Report the result of an applied chunk of ACLs
+     *
+     * @param operation The applied operation
+     * @param index     The index of the chunk
+     * @param chunks    All the chunks
+     * @param failures  The number of ACLs of the chunk that failed
+     */
+    private void reportChunk(String operation, int index, List<List<AclBinding>> chunks, int failures) {
+        int size = chunks.get(index).size();
+        if (failures > 0) {
+            log.error("Error while {} ACLs chunk {}/{} on {}: {}/{} ACL(s) failed", operation, index + 1, chunks.size(),
+                    this.kafkaAsyncExecutorConfig.getName(), failures, size);
+        } else {
+            log.debug("Success {} ACLs chunk {}/{} on {}: {} ACL(s)", operation, index + 1, chunks.size(),
+                    this.kafkaAsyncExecutorConfig.getName(), size);
+        }
+    }
+
+    /**
+     * Wait for the configured interval between two chunks of ACLs, to limit the rate of requests sent to the brokers
+     *
+     * @param index  The index of the applied chunk
+     * @param chunks All the chunks
+     */
+    private void waitBeforeNextChunk(int index, List<List<AclBinding>> chunks) {
+        Duration interval = kafkaAsyncExecutorConfig.getAclBatchInterval();
+        if (index == chunks.size() - 1 || interval == null || interval.isZero()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(interval.toMillis());
+        } catch (InterruptedException e) {
+            log.error("Error", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The ACLs of a namespace, along with the Ns4Kafka resources they have been built from
+     * @param kafkaUser The Kafka user of the namespace
+     * @param accessControlEntries The Ns4Kafka ACLs granted to the namespace
+     * @param kafkaStreams The Kafka Streams of the namespace
+     * @param aclBindings The built ACLs
+     */
+    private record NamespaceAclBindings(String kafkaUser, List<AccessControlEntry> accessControlEntries,
+                                        List<KafkaStream> kafkaStreams, List<AclBinding> aclBindings) {
+        /**
+         * Check the ACLs have been built from the given resources
+         * The store replaces a resource instance whenever the resource changes, so the instances are compared
+         * @param namespace The namespace
+         * @param accessControlEntries The current Ns4Kafka ACLs granted to the namespace
+         * @param kafkaStreams The current Kafka Streams of the namespace
+         * @return true if they have, false otherwise
+         */
+        boolean isBuiltFrom(Namespace namespace, List<AccessControlEntry> accessControlEntries, List<KafkaStream> kafkaStreams) {
+            return kafkaUser.equals(namespace.getSpec().getKafkaUser())
+                    && sameInstances(this.accessControlEntries, accessControlEntries)
+                    && sameInstances(this.kafkaStreams, kafkaStreams);
+        }
+
+        private static boolean sameInstances(List<?> previous, List<?> current) {
+            if (previous.size() != current.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < previous.size(); i++) {
+                if (previous.get(i) != current.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
     }
 
     /**
@@ -2,6 +2,7 @@ package com.michelin.ns4kafka.services.executors;
 
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.ReconciliationAction;
 import com.michelin.ns4kafka.models.connector.Connector;
 import com.michelin.ns4kafka.repositories.ConnectorRepository;
 import com.michelin.ns4kafka.services.ConnectClusterService;
@@ -9,6 +10,8 @@ import com.michelin.ns4kafka.services.clients.connect.KafkaConnectClient;
 import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorInfo;
 import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorSpecs;
 import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorStatus;
+import com.michelin.ns4kafka.utils.FingerprintUtils;
+import com.michelin.ns4kafka.utils.exceptions.ConnectClusterUnavailableException;
 import io.micronaut.context.annotation.EachBean;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.http.client.exceptions.ReadTimeoutException;
@@ -18,9 +21,12 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -38,6 +44,16 @@ public class ConnectorAsyncExecutor {
     @Inject
     private ConnectClusterService connectClusterService;
 
+    /**
+     * The connectors found on each connect cluster during the last collection
+     */
+    private final Map<String, List<Connector>> brokerConnectorsSnapshot = new ConcurrentHashMap<>();
+
+    /**
+     * The connectors deployed by Ns4Kafka, by connect cluster and name
+     */
+    private final Map<String, Map<String, DeployedConnector>> deployedConnectors = new ConcurrentHashMap<>();
+
     public ConnectorAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
@@ -56,16 +72,26 @@ public class ConnectorAsyncExecutor {
      * For each connect cluster, start the synchronization of connectors
      */
     private Flux<ConnectorInfo> synchronizeConnectors() {
+        List<Flux<ConnectorInfo>> connectorSyncResponses = listConnectClusters()
+                .stream()
+                .map(this::synchronizeConnectCluster)
+                .toList();
+
+        return Flux.fromIterable(connectorSyncResponses).flatMap(Function.identity());
+    }
+
+    /**
+     * List the connect clusters of the Kafka cluster, either declared in the configuration or self-declared
+     * @return The connect cluster names
+     */
+    private List<String> listConnectClusters() {
         List<String> selfDeclaredConnectClusterNames = connectClusterService.findAll()
                 .stream()
                 .filter(connectCluster -> connectCluster.getMetadata().getCluster().equals(kafkaAsyncExecutorConfig.getName()))
                 .map(connectCluster -> connectCluster.getMetadata().getName()).toList();
 
-        List<Flux<ConnectorInfo>> connectorSyncResponses = Stream.concat(kafkaAsyncExecutorConfig.getConnects().keySet().stream(), selfDeclaredConnectClusterNames.stream())
-                .map(this::synchronizeConnectCluster)
+        return Stream.concat(kafkaAsyncExecutorConfig.getConnects().keySet().stream(), selfDeclaredConnectClusterNames.stream())
                 .toList();
-
-        return Flux.fromIterable(connectorSyncResponses).flatMap(Function.identity());
     }
 
     /**
@@ -82,6 +108,9 @@ public class ConnectorAsyncExecutor {
                     log.error("Invalid HTTP response {} ({}) during connectors synchronization for Kafka cluster {} and Kafka Connect {}",
                             httpClientResponseException.getStatus(), httpClientResponseException.getResponse().getStatus(),
                             kafkaAsyncExecutorConfig.getName(), connectCluster);
+                } else if (error instanceof ConnectClusterUnavailableException) {
+                    log.debug("Skipping connectors synchronization for Kafka cluster {} and Kafka Connect {}: {}",
+                            kafkaAsyncExecutorConfig.getName(), connectCluster, error.getMessage());
                 } else if (error instanceof ReadTimeoutException) {
                     log.error("Read timeout during connectors synchronization for Kafka cluster {} and Kafka Connect {}",
                             kafkaAsyncExecutorConfig.getName(), connectCluster);
@@ -93,19 +122,15 @@ public class ConnectorAsyncExecutor {
             .flatMapMany(brokerConnectors -> {
                 List<Connector> ns4kafkaConnectors = collectNs4KafkaConnectors(connectCluster);
 
-                List<Connector> toCreate = ns4kafkaConnectors.stream()
-                        .filter(connector -> brokerConnectors.stream().noneMatch(connector1 -> connector1.getMetadata().getName().equals(connector.getMetadata().getName())))
-                        .toList();
+                Map<String, Connector> brokerConnectorsByName = indexByName(brokerConnectors);
 
-                List<Connector> toUpdate = ns4kafkaConnectors.stream()
-                        .filter(connector -> brokerConnectors.stream()
-                                .anyMatch(connector1 -> {
-                                    if (connector1.getMetadata().getName().equals(connector.getMetadata().getName())) {
-                                        return !connectorsAreSame(connector, connector1);
-                                    }
-                                    return false;
-                                }))
-                        .toList();
+                List<Connector> toCreate = computeConnectorsToCreate(ns4kafkaConnectors, brokerConnectorsByName);
+                List<Connector> toUpdate = computeConnectorsToUpdate(ns4kafkaConnectors, brokerConnectorsByName);
+
+                // Forget the deployments of the connectors removed from Ns4Kafka
+                deployedConnectors.computeIfAbsent(connectCluster, key -> new ConcurrentHashMap<>())
+                        .keySet()
+                        .retainAll(ns4kafkaConnectors.stream().map(connector -> connector.getMetadata().getName()).toList());
 
                 if (!toCreate.isEmpty()) {
                     log.debug("Connector(s) to create: " + String.join(",", toCreate.stream().map(connector -> connector.getMetadata().getName()).toList()));
@@ -124,6 +149,103 @@ public class ConnectorAsyncExecutor {
             });
     }
 
+    /**
+     * Index the given connectors by name
+     * @param connectors The connectors
+     * @return The connectors by name
+     */
+    private Map<String, Connector> indexByName(List<Connector> connectors) {
+        return connectors.stream()
+                .collect(Collectors.toMap(connector -> connector.getMetadata().getName(), Function.identity(),
+                        (first, second) -> first));
+    }
+
+    /**
+     * Compute the Ns4Kafka connectors missing on the connect cluster
+     * @param ns4kafkaConnectors The Ns4Kafka connectors
+     * @param brokerConnectorsByName The connectors deployed on the connect cluster, by name
+     * @return The connectors to create
+     */
+    private List<Connector> computeConnectorsToCreate(List<Connector> ns4kafkaConnectors, Map<String, Connector> brokerConnectorsByName) {
+        return ns4kafkaConnectors.stream()
+                .filter(connector -> !brokerConnectorsByName.containsKey(connector.getMetadata().getName()))
+                .toList();
+    }
+
+    /**
+     * Compute the Ns4Kafka connectors deployed with another configuration on the connect cluster
+     * @param ns4kafkaConnectors The Ns4Kafka connectors
+     * @param brokerConnectorsByName The connectors deployed on the connect cluster, by name
+     * @return The connectors to update
+     */
+    private List<Connector> computeConnectorsToUpdate(List<Connector> ns4kafkaConnectors, Map<String, Connector> brokerConnectorsByName) {
+        return ns4kafkaConnectors.stream()
+                .filter(connector -> brokerConnectorsByName.containsKey(connector.getMetadata().getName()))
+                .filter(connector -> !isUpToDate(connector, brokerConnectorsByName.get(connector.getMetadata().getName())))
+                .toList();
+    }
+
+    /**
+     * Compute the connector changes the next synchronization would apply, without applying them
+     * The connectors found on each connect cluster during the last synchronization are used when available
+     * A connect cluster that cannot be reached is reported by an error action
+     * @return The reconciliation actions
+     */
+    public Flux<ReconciliationAction> plan() {
+        if (!kafkaAsyncExecutorConfig.isManageConnectors()) {
+            return Flux.empty();
+        }
+
+        return Flux.fromIterable(listConnectClusters())
+                .concatMap(connectCluster -> Mono.justOrEmpty(brokerConnectorsSnapshot.get(connectCluster))
+                        .switchIfEmpty(Mono.defer(() -> collectBrokerConnectors(connectCluster)))
+                        .flatMapIterable(brokerConnectors -> {
+                            List<Connector> ns4kafkaConnectors = collectNs4KafkaConnectors(connectCluster);
+                            Map<String, Connector> brokerConnectorsByName = indexByName(brokerConnectors);
+                            return Stream.concat(
+                                    computeConnectorsToCreate(ns4kafkaConnectors, brokerConnectorsByName)
+                                            .stream()
+                                            .map(connector -> buildReconciliationAction(connector, ReconciliationAction.Action.CREATE)),
+                                    computeConnectorsToUpdate(ns4kafkaConnectors, brokerConnectorsByName)
+                                            .stream()
+                                            .map(connector -> buildReconciliationAction(connector, ReconciliationAction.Action.ALTER)))
+                                    .toList();
+                        })
+                        .onErrorResume(error -> {
+                            log.error("Error while planning the connectors of Kafka Connect {} of Kafka cluster {}: {}",
+                                    connectCluster, kafkaAsyncExecutorConfig.getName(), error.getMessage());
+                            return Flux.just(ReconciliationAction.error(kafkaAsyncExecutorConfig.getName(), connectCluster,
+                                    ReconciliationAction.ResourceType.CONNECTOR, error.getMessage()));
+                        }));
+    }
+
+    /**
+     * Build a reconciliation action from a connector
+     * @param connector The connector
+     * @param action The action to perform on the connector
+     * @return The reconciliation action
+     */
+    private ReconciliationAction buildReconciliationAction(Connector connector, ReconciliationAction.Action action) {
+        return ReconciliationAction.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(kafkaAsyncExecutorConfig.getName())
+                        .namespace(connector.getMetadata().getNamespace())
+                        .name(connector.getMetadata().getName())
+                        .build())
+                .spec(ReconciliationAction.ReconciliationActionSpec.builder()
+                        .resourceType(ReconciliationAction.ResourceType.CONNECTOR)
+                        .action(action)
+                        .connectCluster(connector.getSpec().getConnectCluster())
+                        .changes(connector.getSpec().getConfig()
+                                .entrySet()
+                                .stream()
+                                .map(entry -> entry.getKey() + "(" + entry.getValue() + ")")
+                                .sorted()
+                                .toList())
+                        .build())
+                .build();
+    }
+
     /**
      * Collect the connectors deployed on the given connect cluster
      * @param connectCluster The connect cluster
@@ -134,11 +256,13 @@ public class ConnectorAsyncExecutor {
                 .map(connectors -> {
                     log.debug("{} connectors found on Kafka Connect {} of Kafka cluster {}.", connectors.size(), connectCluster, kafkaAsyncExecutorConfig.getName());
 
-                    return connectors
+                    List<Connector> brokerConnectors = connectors
                             .values()
                             .stream()
                             .map(connectorStatus -> buildConnectorFromConnectorStatus(connectorStatus, connectCluster))
                             .toList();
+                    brokerConnectorsSnapshot.put(connectCluster, brokerConnectors);
+                    return brokerConnectors;
                 });
     }
 
@@ -176,23 +300,54 @@ public class ConnectorAsyncExecutor {
     }
 
     /**
-     * Check if both given connectors are equal
-     * @param expected The first connector
-     * @param actual The second connector
-     * @return true it they are, false otherwise
+     * Check if the connector deployed on the connect cluster matches the Ns4Kafka connector
+     * Kafka Connect may normalize a deployed configuration. The configuration first observed after a deployment
+     * is checked against the deployed one, once normalized, then considered up-to-date as long as neither
+     * the Ns4Kafka configuration nor the deployed one change
+     * @param expected The Ns4Kafka connector
+     * @param actual The deployed connector
+     * @return true it they match, false otherwise
      */
-    private boolean connectorsAreSame(Connector expected, Connector actual) {
-        Map<String, String> expectedMap = expected.getSpec().getConfig();
-        Map<String, String> actualMap = actual.getSpec().getConfig();
+    private boolean isUpToDate(Connector expected, Connector actual) {
+        String expectedFingerprint = FingerprintUtils.fingerprint(expected.getSpec().getConfig());
+        String actualFingerprint = FingerprintUtils.fingerprint(actual.getSpec().getConfig());
+        if (expectedFingerprint.equals(actualFingerprint)) {
+            return true;
+        }
 
-        if (expectedMap.size() != actualMap.size()) {
+        Map<String, DeployedConnector> deployed = deployedConnectors.get(expected.getSpec().getConnectCluster());
+        DeployedConnector deployedConnector = deployed == null ? null : deployed.get(expected.getMetadata().getName());
+        if (deployedConnector == null || !deployedConnector.fingerprint().equals(expectedFingerprint)) {
             return false;
         }
 
-        return expectedMap.entrySet()
-                .stream()
-                .allMatch(e -> (e.getValue() == null && actualMap.get(e.getKey()) == null)
-                        || (e.getValue() != null && e.getValue().equals(actualMap.get(e.getKey()))));
+        if (deployedConnector.observedFingerprint() == null) {
+            // The configuration may have been edited out-of-band since the deployment
+            if (!normalizeConfig(expected).equals(normalizeConfig(actual))) {
+                return false;
+            }
+
+            deployed.put(expected.getMetadata().getName(), new DeployedConnector(expectedFingerprint, actualFingerprint));
+            return true;
+        }
+
+        return deployedConnector.observedFingerprint().equals(actualFingerprint);
+    }
+
+    /**
+     * Normalize the configuration of a connector as Kafka Connect lists it
+     * The null values are dropped, and so is the name of the connector, which Kafka Connect adds to the configuration
+     * @param connector The connector
+     * @return The normalized configuration
+     */
+    private Map<String, String> normalizeConfig(Connector connector) {
+        Map<String, String> normalizedConfig = new HashMap<>();
+        connector.getSpec().getConfig().forEach((key, value) -> {
+            if (value != null && !(key.equals("name") && value.equals(connector.getMetadata().getName()))) {
+                normalizedConfig.put(key, value);
+            }
+        });
+        return normalizedConfig;
     }
 
     /**
@@ -202,9 +357,25 @@ public class ConnectorAsyncExecutor {
     private Mono<ConnectorInfo> deployConnector(Connector connector) {
         return kafkaConnectClient.createOrUpdate(kafkaAsyncExecutorConfig.getName(), connector.getSpec().getConnectCluster(),
                         connector.getMetadata().getName(), ConnectorSpecs.builder().config(connector.getSpec().getConfig()).build())
-                .doOnSuccess(httpResponse -> log.info("Success deploying connector {} on Kafka Connect {} of Kafka cluster {}.",
-                        connector.getMetadata().getName(), connector.getSpec().getConnectCluster(), kafkaAsyncExecutorConfig.getName()))
+                .doOnSuccess(httpResponse -> {
+                    log.info("Success deploying connector {} on Kafka Connect {} of Kafka cluster {}.",
+                            connector.getMetadata().getName(), connector.getSpec().getConnectCluster(), kafkaAsyncExecutorConfig.getName());
+                    deployedConnectors.computeIfAbsent(connector.getSpec().getConnectCluster(), key -> new ConcurrentHashMap<>())
+                            .put(connector.getMetadata().getName(),
+                                    new DeployedConnector(FingerprintUtils.fingerprint(connector.getSpec().getConfig()), null));
+                    brokerConnectorsSnapshot.computeIfPresent(connector.getSpec().getConnectCluster(), (connectCluster, brokerConnectors) ->
+                            Stream.concat(brokerConnectors.stream()
+                                            .filter(brokerConnector -> !brokerConnector.getMetadata().getName().equals(connector.getMetadata().getName())),
+                                    Stream.of(connector)).toList());
+                })
                 .doOnError(httpError -> log.error("Error deploying connector {} on Kafka Connect {} of Kafka cluster {}.",
                                 connector.getMetadata().getName(), connector.getSpec().getConnectCluster(), kafkaAsyncExecutorConfig.getName()));
     }
+
+    /**
+     * A connector deployed by Ns4Kafka
+     * @param fingerprint The fingerprint of the deployed configuration
+     * @param observedFingerprint The fingerprint of the configuration listed by Kafka Connect after the deployment
+     */
+    private record DeployedConnector(String fingerprint, String observedFingerprint) {}
 }
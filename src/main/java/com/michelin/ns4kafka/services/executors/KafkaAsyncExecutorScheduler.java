@@ -1,5 +1,10 @@
 package com.michelin.ns4kafka.services.executors;
 
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
+import com.michelin.ns4kafka.services.ConnectClusterService;
+import com.michelin.ns4kafka.services.ConnectorService;
+import com.michelin.ns4kafka.services.SchemaService;
 import com.michelin.ns4kafka.services.clients.connect.entities.ConnectorInfo;
 import io.micronaut.runtime.event.ApplicationStartupEvent;
 import io.micronaut.runtime.event.annotation.EventListener;
@@ -8,6 +13,7 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
@@ -29,6 +35,21 @@ public class KafkaAsyncExecutorScheduler {
     @Inject
     List<UserAsyncExecutor> userAsyncExecutors;
 
+    @Inject
+    ConnectClusterService connectClusterService;
+
+    @Inject
+    ConnectorService connectorService;
+
+    @Inject
+    KafkaConnectConfig kafkaConnectConfig;
+
+    @Inject
+    SchemaService schemaService;
+
+    @Inject
+    SchemaRegistryConfig schemaRegistryConfig;
+
     private final AtomicBoolean ready = new AtomicBoolean(false);
 
     /**
@@ -39,6 +60,9 @@ public class KafkaAsyncExecutorScheduler {
     public void onStartupEvent(ApplicationStartupEvent event) {
         ready.compareAndSet(false,true);
         scheduleConnectorSynchronization();
+        scheduleConnectClusterStatusCheck();
+        scheduleConnectorPluginCatalogRefresh();
+        scheduleSubjectCatalogRefresh();
     }
 
     /**
@@ -70,4 +94,46 @@ public class KafkaAsyncExecutorScheduler {
                 })
                 .subscribe();
     }
+
+    /**
+     * Schedule the status check of the self deployed Connect clusters
+     */
+    public void scheduleConnectClusterStatusCheck() {
+        Flux.interval(Duration.ZERO, kafkaConnectConfig.getStatusCheckInterval())
+                .onBackpressureDrop(onDropped -> log.debug("Skipping next Connect cluster status check. The previous one is still running."))
+                .concatMap(mapper -> connectClusterService.refreshKafkaConnectStatuses()
+                        .onErrorResume(error -> {
+                            log.error("Error while checking the status of the Connect clusters", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Schedule the refresh of the cached connector plugins
+     */
+    public void scheduleConnectorPluginCatalogRefresh() {
+        Flux.interval(kafkaConnectConfig.getConnectorPluginCatalogRefreshInterval())
+                .onBackpressureDrop(onDropped -> log.debug("Skipping next connector plugins refresh. The previous one is still running."))
+                .concatMap(mapper -> connectorService.refreshConnectorPluginCatalogs()
+                        .onErrorResume(error -> {
+                            log.error("Error while refreshing the connector plugins", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Schedule the refresh of the cached subject catalogs
+     */
+    public void scheduleSubjectCatalogRefresh() {
+        Flux.interval(schemaRegistryConfig.getSubjectCatalogRefreshInterval())
+                .onBackpressureDrop(onDropped -> log.debug("Skipping next subject catalogs refresh. The previous one is still running."))
+                .concatMap(mapper -> schemaService.refreshSubjectCatalogs()
+                        .onErrorResume(error -> {
+                            log.error("Error while refreshing the subject catalogs", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
 }
@@ -2,6 +2,7 @@ package com.michelin.ns4kafka.services.executors;
 
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.ReconciliationAction;
 import com.michelin.ns4kafka.models.Topic;
 import com.michelin.ns4kafka.repositories.TopicRepository;
 import com.michelin.ns4kafka.repositories.kafka.KafkaStoreException;
@@ -21,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @EachBean(KafkaAsyncExecutorConfig.class)
@@ -31,6 +33,11 @@ public class TopicAsyncExecutor {
     @Inject
     TopicRepository topicRepository;
 
+    /**
+     * The topics found on the broker during the last synchronization
+     */
+    private volatile Map<String, Topic> brokerTopicsSnapshot;
+
     public TopicAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
@@ -66,19 +73,7 @@ public class TopicAsyncExecutor {
                     .filter(topic -> brokerTopics.containsKey(topic.getMetadata().getName()))
                     .toList();
 
-            Map<ConfigResource, Collection<AlterConfigOp>> toUpdate = toCheckConf.stream()
-                    .map(topic -> {
-                        Map<String,String> actualConf = brokerTopics.get(topic.getMetadata().getName()).getSpec().getConfigs();
-                        Map<String,String> expectedConf = topic.getSpec().getConfigs() == null ? Map.of() : topic.getSpec().getConfigs();
-                        Collection<AlterConfigOp> topicConfigChanges = computeConfigChanges(expectedConf,actualConf);
-                        if (!topicConfigChanges.isEmpty()) {
-                            ConfigResource cr = new ConfigResource(ConfigResource.Type.TOPIC, topic.getMetadata().getName());
-                            return Map.entry(cr,topicConfigChanges);
-                        }
-                        return null;
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            Map<ConfigResource, Collection<AlterConfigOp>> toUpdate = computeTopicsToUpdate(toCheckConf, brokerTopics);
 
             if (!toCreate.isEmpty()) {
                 log.debug("Topic(s) to create: " +  String.join("," , toCreate.stream().map(topic -> topic.getMetadata().getName()).toList()));
@@ -93,8 +88,20 @@ public class TopicAsyncExecutor {
                 }
             }
 
-            createTopics(toCreate);
-            alterTopics(toUpdate, toCheckConf);
+            // Status and generation updates are written back to the store in one batch per step,
+            // so the statuses of the created topics are persisted even if the alteration fails
+            List<Topic> createdTopics = createTopics(toCreate);
+            topicRepository.createAll(createdTopics);
+
+            List<Topic> alteredTopics = alterTopics(toUpdate, toCheckConf);
+            topicRepository.createAll(alteredTopics);
+
+            // Successfully synchronized topics now match Ns4Kafka on the broker
+            Map<String, Topic> synchronizedBrokerTopics = new HashMap<>(brokerTopics);
+            Stream.concat(createdTopics.stream(), alteredTopics.stream())
+                    .filter(topic -> topic.getStatus() != null && topic.getStatus().getPhase() == Topic.TopicPhase.Success)
+                    .forEach(topic -> synchronizedBrokerTopics.put(topic.getMetadata().getName(), topic));
+            brokerTopicsSnapshot = synchronizedBrokerTopics;
         } catch (ExecutionException | TimeoutException | CancellationException | KafkaStoreException e) {
             log.error("Error", e);
         } catch (InterruptedException e) {
@@ -103,6 +110,76 @@ public class TopicAsyncExecutor {
         }
     }
 
+    /**
+     * Compute the configuration changes to apply to the given topics
+     * @param toCheckConf The Ns4Kafka topics existing on the broker
+     * @param brokerTopics The broker topics by name
+     * @return The configuration changes by topic
+     */
+    private Map<ConfigResource, Collection<AlterConfigOp>> computeTopicsToUpdate(List<Topic> toCheckConf, Map<String, Topic> brokerTopics) {
+        return toCheckConf.stream()
+                .map(topic -> {
+                    // The topics created without configs are kept as they are in the broker topics snapshot
+                    Map<String,String> actualConf = brokerTopics.get(topic.getMetadata().getName()).getSpec().getConfigs() == null ?
+                            Map.of() : brokerTopics.get(topic.getMetadata().getName()).getSpec().getConfigs();
+                    Map<String,String> expectedConf = topic.getSpec().getConfigs() == null ? Map.of() : topic.getSpec().getConfigs();
+                    Collection<AlterConfigOp> topicConfigChanges = computeConfigChanges(expectedConf,actualConf);
+                    if (!topicConfigChanges.isEmpty()) {
+                        ConfigResource cr = new ConfigResource(ConfigResource.Type.TOPIC, topic.getMetadata().getName());
+                        return Map.entry(cr,topicConfigChanges);
+                    }
+                    return null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Compute the topic changes the next synchronization would apply, without applying them
+     * The broker topics found during the last synchronization are used when available
+     * @return The reconciliation actions
+     */
+    public List<ReconciliationAction> plan() throws ExecutionException, InterruptedException, TimeoutException {
+        if (!this.kafkaAsyncExecutorConfig.isManageTopics()) {
+            return List.of();
+        }
+
+        Map<String, Topic> brokerTopics = brokerTopicsSnapshot;
+        if (brokerTopics == null) {
+            brokerTopics = collectBrokerTopics();
+            brokerTopicsSnapshot = brokerTopics;
+        }
+
+        List<Topic> ns4kafkaTopics = topicRepository.findAllForCluster(kafkaAsyncExecutorConfig.getName());
+
+        List<ReconciliationAction> actions = new ArrayList<>();
+        for (Topic topic : ns4kafkaTopics) {
+            if (!brokerTopics.containsKey(topic.getMetadata().getName())) {
+                List<String> changes = new ArrayList<>();
+                changes.add("partitions(" + topic.getSpec().getPartitions() + ")");
+                changes.add("replication.factor(" + topic.getSpec().getReplicationFactor() + ")");
+                if (topic.getSpec().getConfigs() != null) {
+                    topic.getSpec().getConfigs().forEach((name, value) -> changes.add(name + "(" + value + ")"));
+                }
+
+                actions.add(ReconciliationAction.of(kafkaAsyncExecutorConfig.getName(), topic.getMetadata().getName(),
+                        ReconciliationAction.ResourceType.TOPIC, ReconciliationAction.Action.CREATE, changes));
+            }
+        }
+
+        Map<String, Topic> finalBrokerTopics = brokerTopics;
+        computeTopicsToUpdate(ns4kafkaTopics.stream()
+                        .filter(topic -> finalBrokerTopics.containsKey(topic.getMetadata().getName()))
+                        .toList(), brokerTopics)
+                .forEach((configResource, ops) -> actions.add(ReconciliationAction.of(kafkaAsyncExecutorConfig.getName(),
+                        configResource.name(), ReconciliationAction.ResourceType.TOPIC, ReconciliationAction.Action.ALTER,
+                        ops.stream()
+                                .map(op -> op.opType().toString() + " " + op.configEntry().name() + "(" + op.configEntry().value() + ")")
+                                .toList())));
+
+        return actions;
+    }
+
     /**
      * Delete a topic
      * @param topic The topic to delete
@@ -168,10 +245,20 @@ public class TopicAsyncExecutor {
                 .collect(Collectors.toMap( topic -> topic.getMetadata().getName(), Function.identity()));
     }
 
-    private void alterTopics(Map<ConfigResource, Collection<AlterConfigOp>> toUpdate, List<Topic> topics) {
+    /**
+     * Alter the configuration of the given topics
+     * @param toUpdate The configuration changes by topic
+     * @param topics The Ns4Kafka topics
+     * @return The altered topics, with their status updated
+     */
+    private List<Topic> alterTopics(Map<ConfigResource, Collection<AlterConfigOp>> toUpdate, List<Topic> topics) {
+        Map<String, Topic> topicsByName = topics.stream()
+                .collect(Collectors.toMap(topic -> topic.getMetadata().getName(), Function.identity()));
+
+        List<Topic> updatedTopics = new ArrayList<>();
         AlterConfigsResult alterConfigsResult = getAdminClient().incrementalAlterConfigs(toUpdate);
         alterConfigsResult.values().forEach((key, value) -> {
-            Topic updatedTopic = topics.stream().filter(t -> t.getMetadata().getName().equals(key.name())).findFirst().get();
+            Topic updatedTopic = topicsByName.get(key.name());
             try {
                 value.get(10, TimeUnit.SECONDS);
                 Collection<AlterConfigOp> ops = toUpdate.get(key);
@@ -189,11 +276,21 @@ public class TopicAsyncExecutor {
                 updatedTopic.setStatus(Topic.TopicStatus.ofFailed("Error while updating topic configs: " + e.getMessage()));
                 log.error(String.format("Error while updating topic configs %s on %s", key.name(), this.kafkaAsyncExecutorConfig.getName()), e);
             }
-            topicRepository.create(updatedTopic);
+            updatedTopics.add(updatedTopic);
         });
+
+        return updatedTopics;
     }
 
-    private void createTopics(List<Topic> topics) {
+    /**
+     * Create the given topics
+     * @param topics The Ns4Kafka topics to create
+     * @return The created topics, with their status updated
+     */
+    private List<Topic> createTopics(List<Topic> topics) {
+        Map<String, Topic> topicsByName = topics.stream()
+                .collect(Collectors.toMap(topic -> topic.getMetadata().getName(), Function.identity()));
+
         List<NewTopic> newTopics = topics.stream()
                 .map(topic -> {
                     log.debug("Creating topic {} on {}",topic.getMetadata().getName(),topic.getMetadata().getCluster());
@@ -204,9 +301,10 @@ public class TopicAsyncExecutor {
                 })
                 .toList();
 
+        List<Topic> createdTopics = new ArrayList<>();
         CreateTopicsResult createTopicsResult = getAdminClient().createTopics(newTopics);
         createTopicsResult.values().forEach((key, value) -> {
-            Topic createdTopic = topics.stream().filter(t -> t.getMetadata().getName().equals(key)).findFirst().get();
+            Topic createdTopic = topicsByName.get(key);
             try {
                 value.get(10, TimeUnit.SECONDS);
                 createdTopic.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
@@ -220,8 +318,10 @@ public class TopicAsyncExecutor {
                 createdTopic.setStatus(Topic.TopicStatus.ofFailed("Error while creating topic: " + e.getMessage()));
                 log.error(String.format("Error while creating topic %s on %s", key, this.kafkaAsyncExecutorConfig.getName()), e);
             }
-            topicRepository.create(createdTopic);
+            createdTopics.add(createdTopic);
         });
+
+        return createdTopics;
     }
  
     private Collection<AlterConfigOp> computeConfigChanges(Map<String,String> expected, Map<String,String> actual){
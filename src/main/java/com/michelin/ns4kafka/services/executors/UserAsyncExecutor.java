@@ -4,7 +4,9 @@ import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.quota.ResourceQuota;
 import com.michelin.ns4kafka.repositories.NamespaceRepository;
 import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import com.michelin.ns4kafka.utils.BatchUtils;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.annotation.EachBean;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
@@ -13,6 +15,7 @@ import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.ScramCredentialInfo;
 import org.apache.kafka.clients.admin.ScramMechanism;
 import org.apache.kafka.clients.admin.UserScramCredentialUpsertion;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.quota.ClientQuotaAlteration;
 import org.apache.kafka.common.quota.ClientQuotaEntity;
 import org.apache.kafka.common.quota.ClientQuotaFilter;
@@ -31,6 +34,10 @@ public class UserAsyncExecutor {
 
     private static final String USER_QUOTA_PREFIX = "user/";
 
+    private static final String PRODUCER_BYTE_RATE = "producer_byte_rate";
+
+    private static final String CONSUMER_BYTE_RATE = "consumer_byte_rate";
+
     private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
 
     private final AbstractUserSynchronizer userExecutor;
@@ -41,11 +48,15 @@ public class UserAsyncExecutor {
     @Inject
     ResourceQuotaRepository quotaRepository;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     public UserAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
         switch (kafkaAsyncExecutorConfig.getProvider()) {
             case SELF_MANAGED:
-                this.userExecutor = new Scram512UserSynchronizer(kafkaAsyncExecutorConfig.getAdminClient());
+                this.userExecutor = new Scram512UserSynchronizer(kafkaAsyncExecutorConfig.getAdminClient(),
+                        kafkaAsyncExecutorConfig.getQuotaBatchSize());
                 break;
             case CONFLUENT_CLOUD:
             default:
@@ -69,19 +80,22 @@ public class UserAsyncExecutor {
         Map<String, Map<String, Double>> ns4kafkaUserQuotas = collectNs4kafkaQuotas();
 
         // Compute toCreate, toDelete, and toUpdate lists
+        // Quotas are compared once the default values are applied, as they are on the broker
         Map<String, Map<String, Double>> toCreate = ns4kafkaUserQuotas.entrySet()
                 .stream()
                 .filter(entry -> !brokerUserQuotas.containsKey(entry.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> effectiveQuotas(entry.getValue())));
         Map<String, Map<String, Double>> toDelete = brokerUserQuotas.entrySet()
                 .stream()
+                .filter(entry -> entry.getKey() != null) // Default user quotas are not managed by Ns4Kafka
                 .filter(entry -> !ns4kafkaUserQuotas.containsKey(entry.getKey()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         Map<String, Map<String, Double>> toUpdate = ns4kafkaUserQuotas.entrySet()
                 .stream()
                 .filter(entry -> brokerUserQuotas.containsKey(entry.getKey()))
-                .filter(entry -> !entry.getValue().isEmpty() && !entry.getValue().equals(brokerUserQuotas.get(entry.getKey())))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .filter(entry -> !entry.getValue().isEmpty())
+                .filter(entry -> !effectiveQuotas(entry.getValue()).equals(managedQuotas(brokerUserQuotas.get(entry.getKey()))))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> effectiveQuotas(entry.getValue())));
 
         if (log.isDebugEnabled()) {
             log.debug("UserQuotas to create : " + String.join(", ", toCreate.keySet()));
@@ -89,8 +103,19 @@ public class UserAsyncExecutor {
             log.debug("UserQuotas to update : " + toUpdate.size());
         }
 
-        createUserQuotas(toCreate);
-        createUserQuotas(toUpdate);
+        recordDrift("create", toCreate.size());
+        recordDrift("update", toUpdate.size());
+        recordDrift("delete", toDelete.size());
+
+        Map<String, Map<String, Double>> toApply = new HashMap<>(toCreate);
+        toApply.putAll(toUpdate);
+        if (!toApply.isEmpty()) {
+            userExecutor.applyQuotas(toApply);
+        }
+
+        if (kafkaAsyncExecutorConfig.isDropUnsyncQuotas() && !toDelete.isEmpty()) {
+            userExecutor.deleteQuotas(toDelete.keySet());
+        }
     }
 
     public String resetPassword(String user) {
@@ -123,8 +148,38 @@ public class UserAsyncExecutor {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
-    private void createUserQuotas(Map<String, Map<String, Double>> toCreate) {
-        toCreate.forEach(this.userExecutor::applyQuotas);
+    /**
+     * Apply the default values to the quotas defined in Ns4Kafka
+     * @param quotas The quotas
+     * @return The quotas applied to the broker
+     */
+    private static Map<String, Double> effectiveQuotas(Map<String, Double> quotas) {
+        return Map.of(PRODUCER_BYTE_RATE, quotas.getOrDefault(PRODUCER_BYTE_RATE, BYTE_RATE_DEFAULT_VALUE),
+                CONSUMER_BYTE_RATE, quotas.getOrDefault(CONSUMER_BYTE_RATE, BYTE_RATE_DEFAULT_VALUE));
+    }
+
+    /**
+     * Keep the broker quotas managed by Ns4Kafka
+     * @param quotas The broker quotas
+     * @return The managed quotas
+     */
+    private static Map<String, Double> managedQuotas(Map<String, Double> quotas) {
+        return quotas.entrySet()
+                .stream()
+                .filter(entry -> List.of(PRODUCER_BYTE_RATE, CONSUMER_BYTE_RATE).contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Count the user quotas that drifted from Ns4Kafka
+     * @param type The kind of drift
+     * @param count The number of drifted user quotas
+     */
+    private void recordDrift(String type, int count) {
+        meterRegistry.counter("ns4kafka.user.quotas.drift",
+                        "cluster", kafkaAsyncExecutorConfig.getName(),
+                        "type", type)
+                .increment(count);
     }
 
     interface AbstractUserSynchronizer {
@@ -134,7 +189,9 @@ public class UserAsyncExecutor {
 
         String resetPassword(String user);
 
-        void applyQuotas(String user, Map<String, Double> quotas);
+        void applyQuotas(Map<String, Map<String, Double>> quotasByUser);
+
+        void deleteQuotas(Collection<String> users);
 
         Map<String, Map<String, Double>> listQuotas();
     }
@@ -143,11 +200,14 @@ public class UserAsyncExecutor {
 
         private Admin admin;
 
+        private final int batchSize;
+
         private final ScramCredentialInfo info = new ScramCredentialInfo(ScramMechanism.SCRAM_SHA_512, 4096);
         private final SecureRandom secureRandom = new SecureRandom();
 
-        public Scram512UserSynchronizer(Admin admin) {
+        public Scram512UserSynchronizer(Admin admin, int batchSize) {
             this.admin = admin;
+            this.batchSize = batchSize;
         }
 
         @Override
@@ -199,22 +259,52 @@ public class UserAsyncExecutor {
         }
 
         @Override
-        public void applyQuotas(String user, Map<String, Double> quotas) {
-            ClientQuotaEntity client = new ClientQuotaEntity(Map.of("user", user));
-            ClientQuotaAlteration.Op producerQuota = new ClientQuotaAlteration.Op("producer_byte_rate", quotas.getOrDefault("producer_byte_rate", BYTE_RATE_DEFAULT_VALUE));
-            ClientQuotaAlteration.Op consumerQuota = new ClientQuotaAlteration.Op("consumer_byte_rate", quotas.getOrDefault("consumer_byte_rate", BYTE_RATE_DEFAULT_VALUE));
-            ClientQuotaAlteration clientQuota = new ClientQuotaAlteration(client, List.of(producerQuota, consumerQuota));
-            try {
-                admin.alterClientQuotas(List.of(clientQuota)).all().get(10, TimeUnit.SECONDS);
-                log.info("Success applying quotas {} for user {}", clientQuota.ops(), user);
-            } catch (InterruptedException e) {
-                log.error("Error", e);
-                Thread.currentThread().interrupt();
-            } catch (Exception e) {
-                log.error(String.format("Error while applying quotas for user %s", user), e);
+        public void applyQuotas(Map<String, Map<String, Double>> quotasByUser) {
+            alterQuotas(quotasByUser.entrySet()
+                    .stream()
+                    .map(entry -> new ClientQuotaAlteration(new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, entry.getKey())),
+                            entry.getValue().entrySet()
+                                    .stream()
+                                    .map(quota -> new ClientQuotaAlteration.Op(quota.getKey(), quota.getValue()))
+                                    .toList()))
+                    .toList(), "applying");
+        }
 
-            }
+        @Override
+        public void deleteQuotas(Collection<String> users) {
+            alterQuotas(users
+                    .stream()
+                    .map(user -> new ClientQuotaAlteration(new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, user)),
+                            List.of(new ClientQuotaAlteration.Op(PRODUCER_BYTE_RATE, null),
+                                    new ClientQuotaAlteration.Op(CONSUMER_BYTE_RATE, null))))
+                    .toList(), "deleting");
+        }
 
+        /**
+         * Send the quota alterations by chunks, one request per chunk
+         * @param alterations The quota alterations
+         * @param operation The operation, for logging purpose
+         */
+        private void alterQuotas(List<ClientQuotaAlteration> alterations, String operation) {
+            Map<ClientQuotaEntity, ClientQuotaAlteration> alterationsByEntity = alterations
+                    .stream()
+                    .collect(Collectors.toMap(ClientQuotaAlteration::entity, alteration -> alteration));
+
+            for (List<ClientQuotaAlteration> chunk : BatchUtils.partition(alterations, batchSize)) {
+                for (Map.Entry<ClientQuotaEntity, KafkaFuture<Void>> entry : admin.alterClientQuotas(chunk).values().entrySet()) {
+                    String user = entry.getKey().entries().get(ClientQuotaEntity.USER);
+                    try {
+                        entry.getValue().get(10, TimeUnit.SECONDS);
+                        log.info("Success {} quotas {} for user {}", operation, alterationsByEntity.get(entry.getKey()).ops(), user);
+                    } catch (InterruptedException e) {
+                        log.error("Error", e);
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        log.error(String.format("Error while %s quotas for user %s", operation, user), e);
+                    }
+                }
+            }
         }
     }
 
@@ -238,7 +328,12 @@ public class UserAsyncExecutor {
         }
 
         @Override
-        public void applyQuotas(String user, Map<String, Double> quotas) {
+        public void applyQuotas(Map<String, Map<String, Double>> quotasByUser) {
+            throw exception;
+        }
+
+        @Override
+        public void deleteQuotas(Collection<String> users) {
             throw exception;
         }
 
@@ -0,0 +1,78 @@
+package com.michelin.ns4kafka.utils;
+
+import com.michelin.ns4kafka.models.schema.Schema;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.SchemaCompatibility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+public class AvroCompatibilityUtils {
+    /**
+     * Check the compatibility of an Avro schema with the previous versions of its subject, as the Schema Registry would
+     * @param schema The new schema
+     * @param previousSchemas The previous schemas of the subject, by version
+     * @param compatibility The compatibility of the subject
+     * @return The incompatibilities, or empty if the compatibility cannot be checked locally
+     */
+    public static Optional<List<String>> checkCompatibility(String schema, SortedMap<Integer, String> previousSchemas,
+                                                            Schema.Compatibility compatibility) {
+        if (compatibility == Schema.Compatibility.GLOBAL) {
+            return Optional.empty();
+        }
+
+        if (compatibility == Schema.Compatibility.NONE || previousSchemas.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        boolean transitive = compatibility == Schema.Compatibility.BACKWARD_TRANSITIVE
+                || compatibility == Schema.Compatibility.FORWARD_TRANSITIVE
+                || compatibility == Schema.Compatibility.FULL_TRANSITIVE;
+        boolean backward = compatibility != Schema.Compatibility.FORWARD && compatibility != Schema.Compatibility.FORWARD_TRANSITIVE;
+        boolean forward = compatibility != Schema.Compatibility.BACKWARD && compatibility != Schema.Compatibility.BACKWARD_TRANSITIVE;
+
+        try {
+            org.apache.avro.Schema newSchema = new org.apache.avro.Schema.Parser().parse(schema);
+            SortedMap<Integer, String> checkedSchemas = transitive ? previousSchemas : previousSchemas.tailMap(previousSchemas.lastKey());
+
+            List<String> incompatibilities = new ArrayList<>();
+            for (Map.Entry<Integer, String> previousSchema : checkedSchemas.entrySet()) {
+                org.apache.avro.Schema oldSchema = new org.apache.avro.Schema.Parser().parse(previousSchema.getValue());
+                if (backward) {
+                    incompatibilities.addAll(getIncompatibilities(previousSchema.getKey(), newSchema, oldSchema));
+                }
+
+                if (forward) {
+                    incompatibilities.addAll(getIncompatibilities(previousSchema.getKey(), oldSchema, newSchema));
+                }
+            }
+
+            return Optional.of(incompatibilities);
+        } catch (AvroRuntimeException e) {
+            // Invalid schemas are left to the Schema Registry to reject
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get the incompatibilities of reading data written with a schema using another schema
+     * @param version The version of the previous schema
+     * @param reader The reader schema
+     * @param writer The writer schema
+     * @return The incompatibilities
+     */
+    private static List<String> getIncompatibilities(Integer version, org.apache.avro.Schema reader, org.apache.avro.Schema writer) {
+        return SchemaCompatibility.checkReaderWriterCompatibility(reader, writer)
+                .getResult()
+                .getIncompatibilities()
+                .stream()
+                .map(incompatibility -> "Incompatible with version " + version + ": " + incompatibility.getType()
+                        + " at " + incompatibility.getLocation() + ", " + incompatibility.getMessage())
+                .toList();
+    }
+
+    private AvroCompatibilityUtils() {}
+}
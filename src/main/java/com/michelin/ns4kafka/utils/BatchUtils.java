@@ -0,0 +1,29 @@
+package com.michelin.ns4kafka.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchUtils {
+    /**
+     * Split a list into consecutive chunks of the given size
+     * The last chunk may be smaller
+     * @param elements The elements to split
+     * @param size The maximum size of a chunk
+     * @param <T> The type of the elements
+     * @return The chunks
+     */
+    public static <T> List<List<T>> partition(List<T> elements, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive but was " + size);
+        }
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i += size) {
+            chunks.add(elements.subList(i, Math.min(i + size, elements.size())));
+        }
+
+        return chunks;
+    }
+
+    private BatchUtils() {}
+}
@@ -0,0 +1,45 @@
+package com.michelin.ns4kafka.utils;
+
+import java.util.*;
+
+public class DiffUtils {
+    /**
+     * Compute the differences between an expected and an actual state
+     * Both states are hashed once, so the elements must implement equals and hashCode
+     * @param expected The expected elements
+     * @param actual The actual elements
+     * @param <T> The type of the elements
+     * @return The elements to create, to delete and the unchanged ones
+     */
+    public static <T> Diff<T> diff(Collection<T> expected, Collection<T> actual) {
+        Set<T> expectedSet = new LinkedHashSet<>(expected);
+        Set<T> actualSet = new LinkedHashSet<>(actual);
+
+        List<T> toCreate = new ArrayList<>();
+        List<T> unchanged = new ArrayList<>();
+        for (T element : expectedSet) {
+            if (actualSet.contains(element)) {
+                unchanged.add(element);
+            } else {
+                toCreate.add(element);
+            }
+        }
+
+        List<T> toDelete = actualSet.stream()
+                .filter(element -> !expectedSet.contains(element))
+                .toList();
+
+        return new Diff<>(toCreate, toDelete, unchanged);
+    }
+
+    /**
+     * The differences between an expected and an actual state
+     * @param toCreate The expected elements missing from the actual state
+     * @param toDelete The actual elements missing from the expected state
+     * @param unchanged The elements present in both states
+     * @param <T> The type of the elements
+     */
+    public record Diff<T>(List<T> toCreate, List<T> toDelete, List<T> unchanged) { }
+
+    private DiffUtils() {}
+}
@@ -17,11 +17,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Slf4j
 public class EncryptionUtils {
@@ -46,6 +52,38 @@ public class EncryptionUtils {
      */
     private static final String NS4KAFKA_PREFIX = "NS4K";
 
+    /**
+     * The maximum number of derived secret keys kept in cache.
+     */
+    private static final int SECRET_KEY_CACHE_SIZE = 64;
+
+    /**
+     * The derived secret keys, by hash of key and salt.
+     */
+    private static final Map<String, SecretKey> SECRET_KEYS = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SecretKey> eldest) {
+                    return size() > SECRET_KEY_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * The AES ciphers, one per thread as a cipher is not thread-safe.
+     */
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ENCRYPT_ALGO);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * The random generator of Initial Values.
+     */
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     /**
      * Constructor
      */
@@ -131,7 +169,7 @@ public class EncryptionUtils {
         try {
             final SecretKey secret = getAESSecretKey(key, salt);
             final byte[] iv = getRandomIV();
-            final var cipher = Cipher.getInstance(ENCRYPT_ALGO);
+            final var cipher = CIPHERS.get();
             cipher.init(Cipher.ENCRYPT_MODE, secret, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
             final byte[] cipherText = cipher.doFinal(clearText.getBytes(StandardCharsets.UTF_8));
             final byte[] prefix = NS4KAFKA_PREFIX.getBytes(StandardCharsets.UTF_8);
@@ -173,7 +211,7 @@ public class EncryptionUtils {
 
             // decrypt the cipher text.
             final SecretKey secret = getAESSecretKey(key, salt);
-            final var cipher = Cipher.getInstance(ENCRYPT_ALGO);
+            final var cipher = CIPHERS.get();
             cipher.init(Cipher.DECRYPT_MODE, secret, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
             return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
         } catch (Exception e) {
@@ -186,6 +224,7 @@ public class EncryptionUtils {
 
     /**
      * Gets the secret key derived AES 256 bits key
+     * The derivation is costly, so the derived keys are cached by hash of key and salt
      *
      * @param key  The encryption key
      * @param salt The encryption salt
@@ -195,11 +234,48 @@ public class EncryptionUtils {
      */
     private static SecretKey getAESSecretKey(final String key, final String salt)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
+        final String secretKeyHash = hash(key, salt);
+        SecretKey secret = SECRET_KEYS.get(secretKeyHash);
+        if (secret == null) {
+            secret = deriveAESSecretKey(key, salt);
+            SECRET_KEYS.put(secretKeyHash, secret);
+        }
+        return secret;
+    }
+
+    /**
+     * Derive an AES 256 bits key from the given key and salt
+     *
+     * @param key  The encryption key
+     * @param salt The encryption salt
+     * @return The encryption secret key.
+     * @throws NoSuchAlgorithmException No such algorithm exception.
+     * @throws InvalidKeySpecException  Invalid key spec exception.
+     */
+    private static SecretKey deriveAESSecretKey(final String key, final String salt)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
         var factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
         var spec = new PBEKeySpec(key.toCharArray(), salt.getBytes(StandardCharsets.UTF_8), 65536, 256);
         return new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
     }
 
+    /**
+     * Hash the given key and salt, so they are not kept in clear text as cache keys
+     *
+     * @param key  The encryption key
+     * @param salt The encryption salt
+     * @return The SHA-256 hash of the key and salt
+     * @throws NoSuchAlgorithmException No such algorithm exception.
+     */
+    private static String hash(final String key, final String salt) throws NoSuchAlgorithmException {
+        final var digest = MessageDigest.getInstance("SHA-256");
+        final byte[] keyAsBytes = key.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(keyAsBytes.length).array());
+        digest.update(keyAsBytes);
+        digest.update(salt.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     /**
      * Get a random Initial Value byte array.
      *
@@ -207,7 +283,7 @@ public class EncryptionUtils {
      */
     private static byte[] getRandomIV() {
         final byte[] iv = new byte[IV_LENGTH_BYTE];
-        new SecureRandom().nextBytes(iv);
+        SECURE_RANDOM.nextBytes(iv);
         return iv;
     }
 }
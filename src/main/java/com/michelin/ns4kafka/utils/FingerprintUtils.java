@@ -0,0 +1,106 @@
+package com.michelin.ns4kafka.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.michelin.ns4kafka.models.schema.Schema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+public class FingerprintUtils {
+    private static final String NULL_VALUE = "\u0000";
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    /**
+     * Compute a stable SHA-256 fingerprint of a configuration
+     * The fingerprint does not depend on the order of the entries
+     * @param config The configuration
+     * @return The fingerprint, as hexadecimal
+     */
+    public static String fingerprint(Map<String, String> config) {
+        MessageDigest digest = sha256();
+        new TreeMap<>(config).forEach((key, value) -> {
+            update(digest, key);
+            update(digest, value == null ? NULL_VALUE : value);
+        });
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Compute a stable SHA-256 fingerprint of a schema, from its type, its canonical form and its references
+     * The fingerprint does not depend on the formatting of the schema nor on the order of the JSON attributes
+     * @param schema The schema
+     * @return The fingerprint, as hexadecimal
+     */
+    public static String fingerprint(Schema.SchemaSpec schema) {
+        MessageDigest digest = sha256();
+        update(digest, String.valueOf(schema.getSchemaType()));
+        update(digest, canonicalize(schema.getSchemaType(), schema.getSchema()));
+        if (schema.getReferences() != null) {
+            schema.getReferences().forEach(reference -> {
+                update(digest, String.valueOf(reference.getName()));
+                update(digest, String.valueOf(reference.getSubject()));
+                update(digest, String.valueOf(reference.getVersion()));
+            });
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Get the canonical form of a schema
+     * Avro and JSON schemas are re-serialized with sorted attributes and without formatting,
+     * other schemas and unparsable ones only get their whitespaces collapsed
+     * @param schemaType The schema type
+     * @param schema The schema
+     * @return The canonical form
+     */
+    private static String canonicalize(Schema.SchemaType schemaType, String schema) {
+        if (schema == null) {
+            return NULL_VALUE;
+        }
+
+        if (schemaType != Schema.SchemaType.PROTOBUF) {
+            try {
+                return CANONICAL_JSON.writeValueAsString(CANONICAL_JSON.readValue(schema, Object.class));
+            } catch (JsonProcessingException e) {
+                // Invalid schemas are left to the Schema Registry to reject
+            }
+        }
+
+        return WHITESPACES.matcher(schema.trim()).replaceAll(" ");
+    }
+
+    /**
+     * Add a length-prefixed string to the digest, so "a=bc" and "ab=c" do not collide
+     * @param digest The digest
+     * @param value The string
+     */
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private FingerprintUtils() {}
+}
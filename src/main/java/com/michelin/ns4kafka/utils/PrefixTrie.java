@@ -0,0 +1,51 @@
+package com.michelin.ns4kafka.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of prefixes, checking whether a value starts with one of them in a single walk of the value
+ * instead of comparing it to each prefix
+ */
+public class PrefixTrie {
+    private final Node root = new Node();
+
+    /**
+     * Add a prefix
+     * @param prefix The prefix
+     */
+    public void add(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), character -> new Node());
+        }
+
+        node.terminal = true;
+    }
+
+    /**
+     * Does the given value start with one of the prefixes ?
+     * @param value The value
+     * @return true if it does, false otherwise
+     */
+    public boolean matchesPrefixOf(String value) {
+        Node node = root;
+        for (int i = 0; i < value.length(); i++) {
+            if (node.terminal) {
+                return true;
+            }
+
+            node = node.children.get(value.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+
+        return node.terminal;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private boolean terminal;
+    }
+}
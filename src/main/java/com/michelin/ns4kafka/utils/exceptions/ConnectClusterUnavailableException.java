@@ -0,0 +1,14 @@
+package com.michelin.ns4kafka.utils.exceptions;
+
+import io.micronaut.http.client.exceptions.HttpClientException;
+
+/**
+ * Thrown instead of calling a Kafka Connect cluster whose circuit breaker is open
+ */
+public class ConnectClusterUnavailableException extends HttpClientException {
+    private static final long serialVersionUID = 6413879410318725347L;
+
+    public ConnectClusterUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.connector.ChangeConnectorState;
 import com.michelin.ns4kafka.models.connector.Connector;
+import com.michelin.ns4kafka.models.connector.ConnectorStatusList;
 import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
 import com.michelin.ns4kafka.services.ConnectorService;
 import com.michelin.ns4kafka.services.NamespaceService;
@@ -96,6 +97,36 @@ class ConnectorControllerTest {
         Assertions.assertEquals(2, actual.size());
     }
 
+    /**
+     * Test connector status listing
+     */
+    @Test
+    void listConnectorStatuses() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ConnectorStatusList connectorStatusList = ConnectorStatusList.builder()
+                .metadata(ObjectMeta.builder().name("test").build())
+                .spec(ConnectorStatusList.ConnectorStatusListSpec.builder()
+                        .connectors(List.of(Connector.builder().metadata(ObjectMeta.builder().name("connect1").build()).build()))
+                        .errors(List.of())
+                        .build())
+                .build();
+
+        Mockito.when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        Mockito.when(connectorService.findAllStatusesForNamespace(ns))
+                .thenReturn(Mono.just(connectorStatusList));
+
+        StepVerifier.create(connectorController.listStatuses("test"))
+            .consumeNextWith(response -> assertEquals(1, response.getSpec().getConnectors().size()))
+            .verifyComplete();
+    }
+
     /**
      * Test get connector by name when it does not exist
      */
@@ -563,8 +594,7 @@ class ConnectorControllerTest {
         when(connectorService.listUnsynchronizedConnectors(ns))
                 .thenReturn(Mono.just(List.of(connector1, connector2)));
         
-        when(connectorService.createOrUpdate(connector1)).thenReturn(connector1);
-        when(connectorService.createOrUpdate(connector2)).thenReturn(connector2);
+        when(connectorService.createOrUpdateAll(List.of(connector1, connector2))).thenReturn(List.of(connector1, connector2));
 
         StepVerifier.create(connectorController.importResources("test", false))
             .consumeNextWith(response -> {
@@ -607,6 +637,7 @@ class ConnectorControllerTest {
         verify(connectorService, never()).createOrUpdate(connector1);
         verify(connectorService, never()).createOrUpdate(connector2);
         verify(connectorService, never()).createOrUpdate(connector3);
+        verify(connectorService, never()).createOrUpdateAll(any());
     }
 
     /**
@@ -667,7 +698,7 @@ class ConnectorControllerTest {
             .consumeNextWith(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatus()))
             .verifyComplete();
 
-        verify(connectorService,never()).restart(ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(connectorService,never()).restart(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyBoolean());
     }
 
     /**
@@ -689,7 +720,7 @@ class ConnectorControllerTest {
                 .thenReturn(true);
         Mockito.when(connectorService.findByName(ns,"connect1"))
                 .thenReturn(Optional.of(connector));
-        Mockito.when(connectorService.restart(ArgumentMatchers.any(),ArgumentMatchers.any()))
+        Mockito.when(connectorService.restart(ArgumentMatchers.any(),ArgumentMatchers.any(),ArgumentMatchers.anyBoolean()))
                 .thenReturn(Mono.error(new HttpClientResponseException("Rebalancing", HttpResponse.status(HttpStatus.CONFLICT))));
 
         ChangeConnectorState restart = ChangeConnectorState.builder()
@@ -726,7 +757,7 @@ class ConnectorControllerTest {
                 .thenReturn(true);
         Mockito.when(connectorService.findByName(ns,"connect1"))
                 .thenReturn(Optional.of(connector));
-        Mockito.when(connectorService.restart(ArgumentMatchers.any(),ArgumentMatchers.any()))
+        Mockito.when(connectorService.restart(ArgumentMatchers.any(),ArgumentMatchers.any(),ArgumentMatchers.anyBoolean()))
                 .thenReturn(Mono.just(HttpResponse.noContent()));
 
         ChangeConnectorState changeConnectorState = ChangeConnectorState.builder()
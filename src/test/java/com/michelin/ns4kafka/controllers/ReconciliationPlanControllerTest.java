@@ -0,0 +1,79 @@
+package com.michelin.ns4kafka.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michelin.ns4kafka.models.ReconciliationAction;
+import com.michelin.ns4kafka.services.ReconciliationPlanService;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationPlanControllerTest {
+    @Mock
+    ReconciliationPlanService reconciliationPlanService;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    ReconciliationPlanController reconciliationPlanController;
+
+    /**
+     * Validate the plan is streamed as one JSON document per line
+     */
+    @Test
+    void plan() {
+        when(reconciliationPlanService.isManagedCluster("local")).thenReturn(true);
+        when(reconciliationPlanService.plan("local"))
+                .thenReturn(Flux.just(
+                        ReconciliationAction.of("local", "prefix.topic", ReconciliationAction.ResourceType.TOPIC,
+                                ReconciliationAction.Action.CREATE, List.of("partitions(3)")),
+                        ReconciliationAction.of("local", "prefix.", ReconciliationAction.ResourceType.ACL,
+                                ReconciliationAction.Action.DELETE, List.of("acl"))));
+
+        StepVerifier.create(reconciliationPlanController.plan("local"))
+                .consumeNextWith(line -> {
+                    assertTrue(line.endsWith("\n"));
+                    assertEquals(1, line.split("\n").length);
+                    assertTrue(line.contains("\"name\":\"prefix.topic\""));
+                    assertTrue(line.contains("\"action\":\"CREATE\""));
+                })
+                .consumeNextWith(line -> {
+                    assertTrue(line.contains("\"resourceType\":\"ACL\""));
+                    assertTrue(line.contains("\"action\":\"DELETE\""));
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Validate the plan of an unknown cluster is refused
+     */
+    @Test
+    void planUnknownCluster() {
+        when(reconciliationPlanService.isManagedCluster("unknown")).thenReturn(false);
+
+        StepVerifier.create(reconciliationPlanController.plan("unknown"))
+                .consumeErrorWith(error -> {
+                    assertEquals(ResourceValidationException.class, error.getClass());
+                    assertEquals(List.of("Invalid value unknown for cluster: Cluster does not exist"),
+                            ((ResourceValidationException) error).getValidationErrors());
+                })
+                .verify();
+
+        verify(reconciliationPlanService, never()).plan("unknown");
+    }
+}
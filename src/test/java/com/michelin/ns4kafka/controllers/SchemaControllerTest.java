@@ -1,10 +1,13 @@
 package com.michelin.ns4kafka.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
 import com.michelin.ns4kafka.models.AuditLog;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
 import com.michelin.ns4kafka.models.schema.SchemaList;
+import com.michelin.ns4kafka.models.schema.SchemaListPage;
 import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
 import com.michelin.ns4kafka.services.NamespaceService;
 import com.michelin.ns4kafka.services.SchemaService;
@@ -17,12 +20,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -45,6 +51,12 @@ class SchemaControllerTest {
     @Mock
     ApplicationEventPublisher<AuditLog> applicationEventPublisher;
 
+    @Spy
+    SchemaRegistryConfig schemaRegistryConfig = new SchemaRegistryConfig();
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
     /**
      * Test the schema creation
      * The response should contain a "created" header
@@ -124,6 +136,174 @@ class SchemaControllerTest {
             .verifyComplete();
     }
 
+    /**
+     * Test the schema creation when the schema is the known latest version of the subject
+     * The response should contain an "unchanged" header, without calling the Schema Registry
+     */
+    @Test
+    void applyUnchangedFromFingerprint() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
+        when(schemaService.isLatestSchema(namespace, schema)).thenReturn(true);
+        when(schemaService.getCurrentCompatibility("local", schema.getMetadata().getName())).thenReturn(Mono.just(Schema.Compatibility.FORWARD));
+
+        StepVerifier.create(schemaController.apply("myNamespace", schema, false))
+            .consumeNextWith(response -> {
+                assertEquals("unchanged", response.header("X-Ns4kafka-Result"));
+                assertTrue(response.getBody().isPresent());
+                assertEquals(Schema.Compatibility.FORWARD, response.getBody().get().getSpec().getCompatibility());
+            })
+            .verifyComplete();
+
+        verify(schemaService, never()).validateSchemaCompatibility(any(), any());
+        verify(schemaService, never()).register(any(), any());
+    }
+
+    /**
+     * Test the bulk schema creation
+     * The referenced schema is published before the schema referencing it
+     */
+    @Test
+    void applyAll() {
+        Namespace namespace = buildNamespace();
+        Schema referencedSchema = buildSchema();
+        referencedSchema.getMetadata().setName("prefix.address-value");
+        Schema schema = buildSchema();
+        schema.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("com.michelin.Address")
+                .subject("prefix.address-value")
+                .version(1)
+                .build()));
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findNotOwnedSubjects(namespace, List.of("prefix.address-value", "prefix.subject-value"))).thenReturn(Set.of());
+        when(schemaService.groupByReferenceDepth(List.of(referencedSchema, schema)))
+                .thenReturn(List.of(List.of(referencedSchema), List.of(schema)));
+        when(schemaService.validateSchemaCompatibility(eq("local"), any())).thenReturn(Mono.just(List.of()));
+        when(schemaService.getLatestSubject(namespace, "prefix.address-value")).thenReturn(Mono.empty());
+        when(schemaService.getLatestSubject(namespace, "prefix.subject-value")).thenReturn(Mono.just(buildSchema()));
+        when(schemaService.register(eq(namespace), any())).thenReturn(Mono.just(2));
+        when(securityService.username()).thenReturn(Optional.of("test-user"));
+        when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
+        doNothing().when(applicationEventPublisher).publishEvent(any());
+
+        StepVerifier.create(schemaController.applyAll("myNamespace", List.of(referencedSchema, schema), false))
+            .consumeNextWith(result -> {
+                assertTrue(result.contains("\"name\":\"prefix.address-value\""));
+                assertTrue(result.contains("\"status\":\"created\""));
+                assertTrue(result.endsWith("\n"));
+            })
+            .consumeNextWith(result -> {
+                assertTrue(result.contains("\"name\":\"prefix.subject-value\""));
+                assertTrue(result.contains("\"status\":\"changed\""));
+            })
+            .verifyComplete();
+
+        verify(schemaService, times(2)).register(eq(namespace), any());
+    }
+
+    /**
+     * Test the bulk schema creation when the namespace is not owner of a referenced subject
+     * Both the referenced schema and the schema referencing it fail, without failing the other schemas
+     */
+    @Test
+    void applyAllNamespaceNotOwnerOfReferencedSubject() {
+        Namespace namespace = buildNamespace();
+        Schema referencedSchema = buildSchema();
+        referencedSchema.getMetadata().setName("other.address-value");
+        Schema schema = buildSchema();
+        schema.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("com.michelin.Address")
+                .subject("other.address-value")
+                .version(1)
+                .build()));
+        Schema circularSchema = buildSchema();
+        circularSchema.getMetadata().setName("prefix.circular-value");
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findNotOwnedSubjects(namespace, List.of("other.address-value", "prefix.subject-value", "prefix.circular-value")))
+                .thenReturn(Set.of("other.address-value"));
+        when(schemaService.groupByReferenceDepth(List.of(referencedSchema, schema, circularSchema)))
+                .thenReturn(List.of(List.of(referencedSchema), List.of(schema)));
+        when(schemaService.findCircularSubjects(List.of(circularSchema))).thenReturn(Set.of("prefix.circular-value"));
+
+        StepVerifier.create(schemaController.applyAll("myNamespace", List.of(referencedSchema, schema, circularSchema), false))
+            .consumeNextWith(result -> assertTrue(result.contains("Namespace not owner of this schema other.address-value.")))
+            .consumeNextWith(result -> assertTrue(result.contains("Referenced schema other.address-value failed.")))
+            .consumeNextWith(result -> assertTrue(result.contains("Circular reference between prefix.circular-value and the other schemas.")))
+            .verifyComplete();
+
+        verify(schemaService, never()).register(any(), any());
+    }
+
+    /**
+     * Test the bulk schema creation when a subject is given more than once
+     * Both schemas of the subject fail, as the latest version would depend on the order of publication
+     */
+    @Test
+    void applyAllDuplicatedSubject() {
+        Namespace namespace = buildNamespace();
+        Schema firstSchema = buildSchema();
+        Schema secondSchema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findNotOwnedSubjects(namespace, List.of("prefix.subject-value", "prefix.subject-value"))).thenReturn(Set.of());
+        when(schemaService.groupByReferenceDepth(List.of(firstSchema, secondSchema)))
+                .thenReturn(List.of(List.of(firstSchema, secondSchema)));
+
+        StepVerifier.create(schemaController.applyAll("myNamespace", List.of(firstSchema, secondSchema), false))
+            .consumeNextWith(result -> assertTrue(result.contains("Subject prefix.subject-value is given more than once.")))
+            .consumeNextWith(result -> assertTrue(result.contains("Subject prefix.subject-value is given more than once.")))
+            .verifyComplete();
+
+        verify(schemaService, never()).register(any(), any());
+    }
+
+    /**
+     * Test the bulk schema creation when a schema references schemas on a reference cycle
+     * The schemas of the cycle are reported as circular, the schema referencing them as failed because of them
+     */
+    @Test
+    void applyAllReferencingCircularSchemas() {
+        Namespace namespace = buildNamespace();
+        Schema firstCircular = buildSchema();
+        firstCircular.getMetadata().setName("prefix.first-value");
+        firstCircular.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("com.michelin.Second")
+                .subject("prefix.second-value")
+                .version(1)
+                .build()));
+        Schema secondCircular = buildSchema();
+        secondCircular.getMetadata().setName("prefix.second-value");
+        secondCircular.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("com.michelin.First")
+                .subject("prefix.first-value")
+                .version(1)
+                .build()));
+        Schema schema = buildSchema();
+        schema.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("com.michelin.First")
+                .subject("prefix.first-value")
+                .version(1)
+                .build()));
+
+        List<Schema> schemas = List.of(firstCircular, secondCircular, schema);
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findNotOwnedSubjects(namespace, List.of("prefix.first-value", "prefix.second-value", "prefix.subject-value")))
+                .thenReturn(Set.of());
+        when(schemaService.groupByReferenceDepth(schemas)).thenReturn(List.of());
+        when(schemaService.findCircularSubjects(schemas)).thenReturn(Set.of("prefix.first-value", "prefix.second-value"));
+
+        StepVerifier.create(schemaController.applyAll("myNamespace", schemas, false))
+            .consumeNextWith(result -> assertTrue(result.contains("Circular reference between prefix.first-value and the other schemas.")))
+            .consumeNextWith(result -> assertTrue(result.contains("Circular reference between prefix.second-value and the other schemas.")))
+            .consumeNextWith(result -> assertTrue(result.contains("Referenced schema prefix.first-value failed.")))
+            .verifyComplete();
+    }
+
     /**
      * Test the schema creation when the subject has wrong format
      */
@@ -220,6 +400,7 @@ class SchemaControllerTest {
         when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
         when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
         when(schemaService.validateSchemaCompatibility("local", schema)).thenReturn(Mono.just(List.of("Not compatible")));
+        when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName())).thenReturn(Mono.empty());
 
         StepVerifier.create(schemaController.apply("myNamespace", schema, true))
             .consumeErrorWith(error -> {
@@ -251,6 +432,67 @@ class SchemaControllerTest {
             .verifyComplete();
     }
 
+    /**
+     * Test to get a page of schemas of namespace
+     */
+    @Test
+    void listPage() {
+        Namespace namespace = buildNamespace();
+        SchemaListPage page = SchemaListPage.builder()
+                .items(List.of(buildSchemaList()))
+                .continueToken("cHJlZml4LnN1YmplY3QtdmFsdWU")
+                .build();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findPageForNamespace(namespace, null, 500)).thenReturn(Mono.just(page));
+
+        StepVerifier.create(schemaController.listPage("myNamespace", Optional.empty(), Optional.empty()))
+            .consumeNextWith(response -> {
+                assertEquals(1, response.getItems().size());
+                assertEquals("cHJlZml4LnN1YmplY3QtdmFsdWU", response.getContinueToken());
+            })
+            .verifyComplete();
+    }
+
+    /**
+     * Test a page of schemas cannot be empty
+     */
+    @Test
+    void listPageInvalidLimit() {
+        Namespace namespace = buildNamespace();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+
+        StepVerifier.create(schemaController.listPage("myNamespace", Optional.of(0), Optional.empty()))
+            .consumeErrorWith(error -> {
+                assertEquals(ResourceValidationException.class, error.getClass());
+                assertEquals(List.of("Invalid limit 0, it must be greater than 0."), ((ResourceValidationException) error).getValidationErrors());
+            })
+            .verify();
+
+        verify(schemaService, never()).findPageForNamespace(any(), any(), anyInt());
+    }
+
+    /**
+     * Test to stream the schemas of namespace as newline-delimited JSON
+     */
+    @Test
+    void listStream() {
+        Namespace namespace = buildNamespace();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.streamAllForNamespace(namespace))
+                .thenReturn(Flux.just(buildSchemaList("prefix.subject-one-value"), buildSchemaList("prefix.subject-two-value")));
+
+        StepVerifier.create(schemaController.listStream("myNamespace"))
+            .consumeNextWith(line -> {
+                assertTrue(line.contains("\"name\":\"prefix.subject-one-value\""));
+                assertTrue(line.endsWith("}\n"));
+            })
+            .consumeNextWith(line -> assertTrue(line.contains("\"name\":\"prefix.subject-two-value\"")))
+            .verifyComplete();
+    }
+
     /**
      * Test to get a subject by namespace and subject
      */
@@ -420,6 +662,118 @@ class SchemaControllerTest {
         verify(schemaService, times(1)).deleteSubject(namespace, "prefix.subject-value");
     }
 
+    /**
+     * Test the purge of the subjects of a namespace by prefix
+     * The subject that cannot be deleted is reported without failing the others
+     */
+    @Test
+    void purge() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findAllForNamespace(namespace)).thenReturn(Mono.just(List.of(
+                buildSchemaList("prefix.subject-value"),
+                buildSchemaList("prefix.subject-key"),
+                buildSchemaList("other.subject-value"))));
+        when(schemaService.getLatestSubject(eq(namespace), any())).thenReturn(Mono.just(schema));
+        when(schemaService.deleteSubject(namespace, "prefix.subject-value")).thenReturn(Mono.just(new Integer[]{1}));
+        when(schemaService.deleteSubject(namespace, "prefix.subject-key")).thenReturn(Mono.error(new IllegalStateException("Unavailable")));
+        when(securityService.username()).thenReturn(Optional.of("test-user"));
+        when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
+        doNothing().when(applicationEventPublisher).publishEvent(any());
+
+        StepVerifier.create(schemaController.purge("myNamespace", Optional.of("prefix."), false, false))
+            .consumeNextWith(report -> {
+                assertEquals(2, report.getSpec().getSubjectCount());
+                assertEquals(List.of("prefix.subject-value"), report.getSpec().getDeletedSubjects());
+                assertEquals(1, report.getSpec().getErrors().size());
+                assertEquals("prefix.subject-key", report.getSpec().getErrors().get(0).getSubject());
+                assertEquals("Unavailable", report.getSpec().getErrors().get(0).getErrorMessage());
+            })
+            .verifyComplete();
+
+        verify(schemaService, never()).deleteSubject(namespace, "other.subject-value");
+    }
+
+    /**
+     * Test the purge of the subjects of a namespace reports the subjects without version as skipped, not as failed
+     */
+    @Test
+    void purgeSkippedSubject() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findAllForNamespace(namespace)).thenReturn(Mono.just(List.of(
+                buildSchemaList("prefix.subject-value"),
+                buildSchemaList("prefix.subject-key"))));
+        when(schemaService.getLatestSubject(namespace, "prefix.subject-value")).thenReturn(Mono.just(schema));
+        when(schemaService.getLatestSubject(namespace, "prefix.subject-key")).thenReturn(Mono.empty());
+        when(schemaService.deleteSubject(namespace, "prefix.subject-value")).thenReturn(Mono.just(new Integer[]{1}));
+        when(securityService.username()).thenReturn(Optional.of("test-user"));
+        when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
+        doNothing().when(applicationEventPublisher).publishEvent(any());
+
+        StepVerifier.create(schemaController.purge("myNamespace", Optional.of("prefix."), false, false))
+            .consumeNextWith(report -> {
+                assertEquals(2, report.getSpec().getSubjectCount());
+                assertEquals(List.of("prefix.subject-value"), report.getSpec().getDeletedSubjects());
+                assertEquals(List.of("prefix.subject-key"), report.getSpec().getSkippedSubjects());
+                assertTrue(report.getSpec().getErrors().isEmpty());
+            })
+            .verifyComplete();
+
+        verify(schemaService, never()).deleteSubject(namespace, "prefix.subject-key");
+    }
+
+    /**
+     * Test the purge of the subjects of a namespace is rejected without prefix, unless all the subjects are asked
+     */
+    @Test
+    void purgeWithoutPrefix() {
+        Namespace namespace = buildNamespace();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+
+        StepVerifier.create(schemaController.purge("myNamespace", Optional.empty(), false, false))
+            .consumeErrorWith(error -> {
+                assertEquals(ResourceValidationException.class, error.getClass());
+                assertEquals(List.of("Invalid empty prefix, give a prefix or all=true to delete all the subjects of the namespace."),
+                        ((ResourceValidationException) error).getValidationErrors());
+            })
+            .verify();
+
+        StepVerifier.create(schemaController.purge("myNamespace", Optional.of(" "), false, false))
+            .consumeErrorWith(error -> assertEquals(ResourceValidationException.class, error.getClass()))
+            .verify();
+
+        verify(schemaService, never()).findAllForNamespace(any());
+    }
+
+    /**
+     * Test the purge of all the subjects of a namespace in dry run mode
+     */
+    @Test
+    void purgeDryRun() {
+        Namespace namespace = buildNamespace();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findAllForNamespace(namespace)).thenReturn(Mono.just(List.of(
+                buildSchemaList("prefix.subject-value"),
+                buildSchemaList("other.subject-value"))));
+
+        StepVerifier.create(schemaController.purge("myNamespace", Optional.empty(), true, true))
+            .consumeNextWith(report -> {
+                assertEquals(2, report.getSpec().getSubjectCount());
+                assertEquals(List.of("other.subject-value", "prefix.subject-value"), report.getSpec().getDeletedSubjects());
+                assertTrue(report.getSpec().getErrors().isEmpty());
+            })
+            .verifyComplete();
+
+        verify(schemaService, never()).deleteSubject(any(), any());
+    }
+
     /**
      * Should not delete subject when empty
      */
@@ -488,6 +842,19 @@ class SchemaControllerTest {
                 .build();
     }
 
+    /**
+     * Build a schema list resource
+     * @param subject The subject
+     * @return The schema list
+     */
+    private SchemaList buildSchemaList(String subject) {
+        return SchemaList.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(subject)
+                        .build())
+                .build();
+    }
+
     private SchemaList buildSchemaList() {
         return SchemaList.builder()
                 .metadata(ObjectMeta.builder()
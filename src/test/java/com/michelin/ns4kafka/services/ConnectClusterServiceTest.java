@@ -34,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -215,7 +216,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
-                .thenReturn(HttpResponse.ok());
+                .thenReturn(Mono.just(HttpResponse.ok()));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster));
@@ -265,7 +266,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
-                .thenThrow(new HttpClientException("Internal Server Error"));
+                .thenReturn(Mono.error(new HttpClientException("Internal Server Error")));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster));
@@ -290,6 +291,167 @@ class ConnectClusterServiceTest {
         Assertions.assertEquals("Unhealthy (Internal Server Error)", actual.get().getSpec().getStatus());
     }
 
+    /**
+     * Test the Kafka Connect statuses are checked in background, then read from the cache
+     */
+    @Test
+    void findByNamespaceAndNameFromStatusCache() {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("myNamespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .build())
+                .build();
+
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("prefix.connect-cluster")
+                        .cluster("local")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://after")
+                        .build())
+                .build();
+
+        when(connectClusterRepository.findAll())
+                .thenReturn(List.of(connectCluster));
+
+        when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
+                .thenReturn(Mono.just(HttpResponse.ok()));
+
+        when(connectClusterRepository.findAllForCluster("local"))
+                .thenReturn(List.of(connectCluster));
+
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT_CLUSTER)
+                                        .resource("prefix.")
+                                        .build())
+                                .build()
+                ));
+
+        StepVerifier.create(connectClusterService.refreshKafkaConnectStatuses())
+                .verifyComplete();
+
+        Optional<ConnectCluster> actual = connectClusterService.findByNamespaceAndNameOwner(namespace, "prefix.connect-cluster");
+
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals("Healthy (OK)", actual.get().getSpec().getStatus());
+        Assertions.assertNotNull(actual.get().getSpec().getStatusTimestamp());
+        verify(kafkaConnectClient, times(1)).version("local", "prefix.connect-cluster");
+    }
+
+    /**
+     * Test a Kafka Connect missing from the status cache is reported as pending without waiting for its check,
+     * and checked only once
+     */
+    @Test
+    void findByNamespaceAndNamePendingStatus() {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("myNamespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .build())
+                .build();
+
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("prefix.connect-cluster")
+                        .cluster("local")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://after")
+                        .build())
+                .build();
+
+        when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
+                .thenReturn(Mono.never());
+
+        when(connectClusterRepository.findAllForCluster("local"))
+                .thenReturn(List.of(connectCluster));
+
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT_CLUSTER)
+                                        .resource("prefix.")
+                                        .build())
+                                .build()
+                ));
+
+        Optional<ConnectCluster> actual = connectClusterService.findByNamespaceAndNameOwner(namespace, "prefix.connect-cluster");
+
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals("Unknown (status check pending)", actual.get().getSpec().getStatus());
+        Assertions.assertNull(actual.get().getSpec().getStatusTimestamp());
+
+        connectClusterService.findByNamespaceAndNameOwner(namespace, "prefix.connect-cluster");
+        verify(kafkaConnectClient, times(1)).version("local", "prefix.connect-cluster");
+    }
+
+    /**
+     * Test a Kafka Connect whose check fails with an error other than an HTTP error, such as an open circuit breaker,
+     * is reported as unhealthy
+     */
+    @Test
+    void findByNamespaceAndNameCheckError() {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("myNamespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .build())
+                .build();
+
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("prefix.connect-cluster")
+                        .cluster("local")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://after")
+                        .build())
+                .build();
+
+        when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
+                .thenReturn(Mono.error(new IllegalStateException("Circuit breaker is open")));
+
+        when(connectClusterRepository.findAllForCluster("local"))
+                .thenReturn(List.of(connectCluster));
+
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT_CLUSTER)
+                                        .resource("prefix.")
+                                        .build())
+                                .build()
+                ));
+
+        Optional<ConnectCluster> actual = connectClusterService.findByNamespaceAndNameOwner(namespace, "prefix.connect-cluster");
+
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals("Unhealthy (Circuit breaker is open)", actual.get().getSpec().getStatus());
+    }
+
     /**
      * Test find by namespace and name empty response
      */
@@ -315,7 +477,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version("local", "prefix.connect-cluster"))
-                .thenReturn(HttpResponse.ok());
+                .thenReturn(Mono.just(HttpResponse.ok()));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster));
@@ -873,7 +1035,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version(any(), any()))
-                .thenReturn(HttpResponse.ok());
+                .thenReturn(Mono.just(HttpResponse.ok()));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster, connectClusterOwner));
@@ -986,7 +1148,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version(any(), any()))
-                .thenReturn(HttpResponse.ok());
+                .thenReturn(Mono.just(HttpResponse.ok()));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster, connectClusterOwner));
@@ -1048,7 +1210,7 @@ class ConnectClusterServiceTest {
                 .build();
 
         when(kafkaConnectClient.version(any(), any()))
-                .thenReturn(HttpResponse.ok());
+                .thenReturn(Mono.just(HttpResponse.ok()));
 
         when(connectClusterRepository.findAllForCluster("local"))
                 .thenReturn(List.of(connectCluster, connectClusterOwner));
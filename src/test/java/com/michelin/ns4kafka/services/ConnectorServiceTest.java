@@ -1,5 +1,6 @@
 package com.michelin.ns4kafka.services;
 
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.Namespace.NamespaceSpec;
@@ -10,6 +11,7 @@ import com.michelin.ns4kafka.repositories.ConnectorRepository;
 import com.michelin.ns4kafka.services.clients.connect.KafkaConnectClient;
 import com.michelin.ns4kafka.services.clients.connect.entities.*;
 import com.michelin.ns4kafka.services.executors.ConnectorAsyncExecutor;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import com.michelin.ns4kafka.validation.ConnectValidator;
 import com.michelin.ns4kafka.validation.ResourceValidator;
 import io.micronaut.context.ApplicationContext;
@@ -23,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -55,6 +58,9 @@ class ConnectorServiceTest {
     @Mock
     ConnectClusterService connectClusterService;
 
+    @Spy
+    KafkaConnectConfig kafkaConnectConfig = new KafkaConnectConfig();
+
     /**
      * Test to find all connectors by namespace when there is no connector
      */
@@ -642,6 +648,85 @@ class ConnectorServiceTest {
             .verifyComplete();
     }
 
+    /**
+     * Test the connector plugins are fetched once for consecutive validations
+     */
+    @Test
+    void validateLocallyCachedConnectorPlugins() {
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("connect1").build())
+                .spec(Connector.ConnectorSpec.builder()
+                        .connectCluster("local-name")
+                        .config(Map.of("connector.class", "org.apache.kafka.connect.file.FileStreamSinkConnector"))
+                        .build())
+                .build();
+
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        when(kafkaConnectClient.connectPlugins("local", "local-name"))
+                .thenReturn(Mono.just(List.of(new ConnectorPluginInfo("org.apache.kafka.connect.file.FileStreamSinkConnector", ConnectorType.SINK, "v1"))));
+
+        StepVerifier.create(connectorService.validateLocally(ns, connector))
+            .consumeNextWith(response -> assertTrue(response.isEmpty()))
+            .verifyComplete();
+
+        StepVerifier.create(connectorService.validateLocally(ns, connector))
+            .consumeNextWith(response -> assertTrue(response.isEmpty()))
+            .verifyComplete();
+
+        verify(kafkaConnectClient, times(1)).connectPlugins("local", "local-name");
+    }
+
+    /**
+     * Test the connector plugins of a Connect cluster that no longer exists are forgotten by the refresh
+     */
+    @Test
+    void refreshConnectorPluginCatalogsRemovedConnectCluster() {
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("connect1").build())
+                .spec(Connector.ConnectorSpec.builder()
+                        .connectCluster("local-name")
+                        .config(Map.of("connector.class", "org.apache.kafka.connect.file.FileStreamSinkConnector"))
+                        .build())
+                .build();
+
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        when(kafkaConnectClient.connectPlugins("local", "local-name"))
+                .thenReturn(Mono.just(List.of(new ConnectorPluginInfo("org.apache.kafka.connect.file.FileStreamSinkConnector", ConnectorType.SINK, "v1"))));
+        when(kafkaConnectClient.version("local", "local-name"))
+                .thenThrow(new ResourceValidationException(List.of("Connect cluster \"local-name\" not found"), null, null));
+
+        StepVerifier.create(connectorService.validateLocally(ns, connector))
+            .consumeNextWith(response -> assertTrue(response.isEmpty()))
+            .verifyComplete();
+
+        StepVerifier.create(connectorService.refreshConnectorPluginCatalogs())
+            .verifyComplete();
+
+        StepVerifier.create(connectorService.validateLocally(ns, connector))
+            .consumeNextWith(response -> assertTrue(response.isEmpty()))
+            .verifyComplete();
+
+        verify(kafkaConnectClient, times(2)).connectPlugins("local", "local-name");
+    }
+
     /**
      * Test to invalidate the configuration of a connector against the KConnect cluster
      */
@@ -767,17 +852,6 @@ class ConnectorServiceTest {
         when(connectorAsyncExecutor.collectBrokerConnectors("ns-connect-cluster"))
                 .thenReturn(Mono.just(List.of(c5)));
 
-        // list of existing Ns4Kafka access control entries
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect1"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect2"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns1-connect1"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns1-connect2"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns2-connect1"))
-                .thenReturn(false);
 
         when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -798,6 +872,15 @@ class ConnectorServiceTest {
                                         .resourceType(AccessControlEntry.ResourceType.CONNECT)
                                         .resource("ns1-connect1")
                                         .build())
+                                .build(),
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.LITERAL)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT)
+                                        .resource("ns1-connect2")
+                                        .build())
                                 .build()));
 
         // no connects exists into Ns4Kafka
@@ -865,17 +948,6 @@ class ConnectorServiceTest {
         when(connectorRepository.findAllForCluster("local"))
                 .thenReturn(List.of(c1, c2, c3, c4, c5));
 
-        // list of existing Ns4Kafka access control entries
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect1"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect2"))
-            .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns1-connect1"))
-            .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns1-connect2"))
-                .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns2-connect1"))
-            .thenReturn(false);
 
         when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -955,15 +1027,6 @@ class ConnectorServiceTest {
                 .thenReturn(List.of(c1, c2, c3, c4));
 
 
-        // list of existing Ns4Kafka access control entries
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect1"))
-            .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns-connect2"))
-            .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns1-connect1"))
-            .thenReturn(true);
-        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.CONNECT, "ns2-connect1"))
-                .thenReturn(false);
 
         when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -1065,4 +1128,246 @@ class ConnectorServiceTest {
 
         verify(connectorRepository, never()).delete(connector);
     }
+
+    /**
+     * Tests to restart a connector with the bulk restart API
+     */
+    @Test
+    void restartConnectorBulk() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+
+        when(kafkaConnectClient.restartAll("local", "local-name", "ns-connect1", true))
+                .thenReturn(Mono.just(HttpResponse.accepted()));
+
+        StepVerifier.create(connectorService.restart(ns, connector, true))
+            .consumeNextWith(response -> assertEquals(HttpStatus.OK, response.getStatus()))
+            .verifyComplete();
+
+        verify(kafkaConnectClient, never()).status(any(), any(), any());
+        verify(kafkaConnectClient, never()).restart(any(), any(), any(), anyInt());
+    }
+
+    /**
+     * Tests to restart the failed tasks of a connector one by one when the bulk restart API is not available
+     */
+    @Test
+    void restartConnectorTasksOneByOne() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+
+        ConnectorStateInfo connectorStateInfo = new ConnectorStateInfo("ns-connect1",
+                new ConnectorStateInfo.ConnectorState("RUNNING", "worker", null),
+                List.of(new ConnectorStateInfo.TaskState(0, "RUNNING", "worker", null),
+                        new ConnectorStateInfo.TaskState(1, "FAILED", "worker", null),
+                        new ConnectorStateInfo.TaskState(2, "FAILED", "worker", null)),
+                ConnectorType.SINK);
+
+        when(kafkaConnectClient.restartAll("local", "local-name", "ns-connect1", true))
+                .thenReturn(Mono.just(HttpResponse.noContent()));
+        when(kafkaConnectClient.status("local", "local-name", "ns-connect1"))
+                .thenReturn(Mono.just(connectorStateInfo));
+        when(kafkaConnectClient.restart("local", "local-name", "ns-connect1", 1))
+                .thenReturn(Mono.just(HttpResponse.noContent()));
+        when(kafkaConnectClient.restart("local", "local-name", "ns-connect1", 2))
+                .thenReturn(Mono.just(HttpResponse.noContent()));
+
+        StepVerifier.create(connectorService.restart(ns, connector, true))
+            .consumeNextWith(response -> assertEquals(HttpStatus.OK, response.getStatus()))
+            .verifyComplete();
+
+        verify(kafkaConnectClient, never()).restart("local", "local-name", "ns-connect1", 0);
+    }
+
+    /**
+     * Tests to restart the tasks of a connector one by one when some of them fail to restart
+     */
+    @Test
+    void restartConnectorTasksOneByOnePartialError() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+
+        ConnectorStateInfo connectorStateInfo = new ConnectorStateInfo("ns-connect1",
+                new ConnectorStateInfo.ConnectorState("RUNNING", "worker", null),
+                List.of(new ConnectorStateInfo.TaskState(0, "RUNNING", "worker", null),
+                        new ConnectorStateInfo.TaskState(1, "RUNNING", "worker", null)),
+                ConnectorType.SINK);
+
+        when(kafkaConnectClient.restartAll("local", "local-name", "ns-connect1", false))
+                .thenReturn(Mono.just(HttpResponse.noContent()));
+        when(kafkaConnectClient.status("local", "local-name", "ns-connect1"))
+                .thenReturn(Mono.just(connectorStateInfo));
+        when(kafkaConnectClient.restart("local", "local-name", "ns-connect1", 0))
+                .thenReturn(Mono.just(HttpResponse.noContent()));
+        when(kafkaConnectClient.restart("local", "local-name", "ns-connect1", 1))
+                .thenReturn(Mono.error(new HttpClientResponseException("Rebalancing", HttpResponse.status(HttpStatus.CONFLICT))));
+
+        StepVerifier.create(connectorService.restart(ns, connector, false))
+            .consumeErrorWith(error -> assertEquals("Failed to restart 1/2 tasks (task 1: Rebalancing)", error.getMessage()))
+            .verify();
+
+        verify(kafkaConnectClient, times(1)).restart("local", "local-name", "ns-connect1", 0);
+    }
+
+    /**
+     * Tests to find the status of all connectors by namespace when a Connect cluster is not responding
+     */
+    @Test
+    void findAllStatusesForNamespacePartialError() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        Connector c1 = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+        Connector c2 = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect2").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("other-name").build())
+                .build();
+        Connector c3 = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect3").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+
+        when(accessControlEntryService.findAllGrantedToNamespace(ns))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT)
+                                        .resource("ns-")
+                                        .build())
+                                .build()));
+        when(connectorRepository.findAllForCluster("local"))
+                .thenReturn(List.of(c1, c2, c3));
+
+        ConnectorStateInfo connectorStateInfo = new ConnectorStateInfo("ns-connect1",
+                new ConnectorStateInfo.ConnectorState("RUNNING", "worker", null),
+                List.of(new ConnectorStateInfo.TaskState(0, "FAILED", "worker", "trace")),
+                ConnectorType.SINK);
+
+        when(kafkaConnectClient.listAllStatuses("local", "local-name"))
+                .thenReturn(Mono.just(Map.of("ns-connect1", new ConnectorStatus(null, connectorStateInfo))));
+        when(kafkaConnectClient.listAllStatuses("local", "other-name"))
+                .thenReturn(Mono.error(new HttpClientResponseException("Error", HttpResponse.serverError())));
+
+        StepVerifier.create(connectorService.findAllStatusesForNamespace(ns))
+            .consumeNextWith(response -> {
+                assertEquals(3, response.getSpec().getConnectors().size());
+
+                Connector connector1 = response.getSpec().getConnectors().get(0);
+                assertEquals("ns-connect1", connector1.getMetadata().getName());
+                assertEquals(Connector.TaskState.RUNNING, connector1.getStatus().getState());
+                assertEquals(Connector.TaskState.FAILED, connector1.getStatus().getTasks().get(0).getState());
+                assertEquals("trace", connector1.getStatus().getTasks().get(0).getTrace());
+                Assertions.assertNull(c1.getStatus());
+
+                assertEquals("ns-connect2", response.getSpec().getConnectors().get(1).getMetadata().getName());
+                Assertions.assertNull(response.getSpec().getConnectors().get(1).getStatus());
+                assertEquals("ns-connect3", response.getSpec().getConnectors().get(2).getMetadata().getName());
+                Assertions.assertNull(response.getSpec().getConnectors().get(2).getStatus());
+
+                assertEquals(1, response.getSpec().getErrors().size());
+                assertEquals("other-name", response.getSpec().getErrors().get(0).getConnectCluster());
+                assertEquals("Error", response.getSpec().getErrors().get(0).getErrorMessage());
+            })
+            .verifyComplete();
+    }
+
+    /**
+     * Tests to find the status of all connectors by namespace when a connector references an unknown Connect cluster
+     */
+    @Test
+    void findAllStatusesForNamespaceUnknownConnectCluster() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        Connector c1 = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+        Connector c2 = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect2").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("removed-name").build())
+                .build();
+
+        when(accessControlEntryService.findAllGrantedToNamespace(ns))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.CONNECT)
+                                        .resource("ns-")
+                                        .build())
+                                .build()));
+        when(connectorRepository.findAllForCluster("local"))
+                .thenReturn(List.of(c1, c2));
+
+        ConnectorStateInfo connectorStateInfo = new ConnectorStateInfo("ns-connect1",
+                new ConnectorStateInfo.ConnectorState("RUNNING", "worker", null),
+                List.of(new ConnectorStateInfo.TaskState(0, "RUNNING", "worker", null)),
+                ConnectorType.SINK);
+
+        when(kafkaConnectClient.listAllStatuses("local", "local-name"))
+                .thenReturn(Mono.just(Map.of("ns-connect1", new ConnectorStatus(null, connectorStateInfo))));
+        when(kafkaConnectClient.listAllStatuses("local", "removed-name"))
+                .thenThrow(new ResourceValidationException(List.of("Connect cluster \"removed-name\" not found"), null, null));
+
+        StepVerifier.create(connectorService.findAllStatusesForNamespace(ns))
+            .consumeNextWith(response -> {
+                assertEquals(2, response.getSpec().getConnectors().size());
+                assertEquals(Connector.TaskState.RUNNING, response.getSpec().getConnectors().get(0).getStatus().getState());
+                Assertions.assertNull(response.getSpec().getConnectors().get(1).getStatus());
+
+                assertEquals(1, response.getSpec().getErrors().size());
+                assertEquals("removed-name", response.getSpec().getErrors().get(0).getConnectCluster());
+            })
+            .verifyComplete();
+    }
 }
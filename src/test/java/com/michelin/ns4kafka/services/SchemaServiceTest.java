@@ -1,25 +1,31 @@
 package com.michelin.ns4kafka.services;
 
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
+import com.michelin.ns4kafka.models.schema.SchemaListPage;
 import com.michelin.ns4kafka.services.clients.schema.SchemaRegistryClient;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaCompatibilityCheckResponse;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaCompatibilityResponse;
 import com.michelin.ns4kafka.services.clients.schema.entities.SchemaResponse;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +42,9 @@ class SchemaServiceTest {
     @Mock
     SchemaRegistryClient schemaRegistryClient;
 
+    @Spy
+    SchemaRegistryConfig schemaRegistryConfig = new SchemaRegistryConfig();
+
     /**
      * Test to find all schemas by namespace
      */
@@ -109,6 +118,107 @@ class SchemaServiceTest {
            .verifyComplete();
     }
 
+    /**
+     * Test to stream all schemas by namespace, sorted by subject
+     */
+    @Test
+    void streamAllByNamespace() {
+        Namespace namespace = buildNamespace();
+
+        when(schemaRegistryClient.getSubjects(namespace.getMetadata().getCluster()))
+                .thenReturn(Mono.just(List.of("prefix.schema-two", "prefix2.schema-three", "prefix.schema-one")));
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(buildOwnerAccessControlEntry("prefix.")));
+
+        StepVerifier.create(schemaService.streamAllForNamespace(namespace))
+            .consumeNextWith(schema -> assertEquals("prefix.schema-one", schema.getMetadata().getName()))
+            .consumeNextWith(schema -> assertEquals("prefix.schema-two", schema.getMetadata().getName()))
+            .verifyComplete();
+    }
+
+    /**
+     * Test to get the schemas by namespace page by page
+     */
+    @Test
+    void findPageForNamespace() {
+        Namespace namespace = buildNamespace();
+
+        when(schemaRegistryClient.getSubjects(namespace.getMetadata().getCluster()))
+                .thenReturn(Mono.just(List.of("prefix.schema-one", "prefix.schema-two", "prefix2.schema-three", "prefix.schema-four")));
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(buildOwnerAccessControlEntry("prefix.")));
+
+        SchemaListPage firstPage = schemaService.findPageForNamespace(namespace, null, 2).block();
+        assertNotNull(firstPage);
+        assertEquals(List.of("prefix.schema-four", "prefix.schema-one"), firstPage.getItems().stream()
+                .map(schema -> schema.getMetadata().getName())
+                .toList());
+        assertNotNull(firstPage.getContinueToken());
+
+        StepVerifier.create(schemaService.findPageForNamespace(namespace, firstPage.getContinueToken(), 2))
+            .consumeNextWith(page -> {
+                assertEquals(1, page.getItems().size());
+                assertEquals("prefix.schema-two", page.getItems().get(0).getMetadata().getName());
+                assertNull(page.getContinueToken());
+            })
+            .verifyComplete();
+    }
+
+    /**
+     * Test an invalid continue token is rejected
+     */
+    @Test
+    void findPageForNamespaceInvalidContinueToken() {
+        Namespace namespace = buildNamespace();
+
+        StepVerifier.create(schemaService.findPageForNamespace(namespace, "not base64!", 2))
+            .consumeErrorWith(error -> {
+                assertEquals(ResourceValidationException.class, error.getClass());
+                assertEquals(List.of("Invalid continue token not base64!."), ((ResourceValidationException) error).getValidationErrors());
+            })
+            .verify();
+    }
+
+    /**
+     * Test the subjects are read once from the schema registry, then from the refreshed catalog
+     */
+    @Test
+    void getAllByNamespaceFromSubjectCatalog() {
+        Namespace namespace = buildNamespace();
+
+        when(schemaRegistryClient.getSubjects(namespace.getMetadata().getCluster()))
+                .thenReturn(Mono.just(List.of("prefix.schema-one", "prefix.schema-two")))
+                .thenReturn(Mono.just(List.of("prefix.schema-two", "prefix.schema-three-value")));
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("namespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                                        .resource("prefix.")
+                                        .build())
+                                .build()));
+
+        StepVerifier.create(schemaService.findAllForNamespace(namespace))
+            .consumeNextWith(schemas -> assertEquals(2, schemas.size()))
+            .verifyComplete();
+
+        StepVerifier.create(schemaService.refreshSubjectCatalogs())
+            .verifyComplete();
+
+        StepVerifier.create(schemaService.findAllForNamespace(namespace))
+            .consumeNextWith(schemas -> {
+                assertEquals(2, schemas.size());
+                assertEquals("prefix.schema-three-value", schemas.get(0).getMetadata().getName());
+                assertEquals("prefix.schema-two", schemas.get(1).getMetadata().getName());
+            })
+            .verifyComplete();
+
+        verify(schemaRegistryClient, times(2)).getSubjects(namespace.getMetadata().getCluster());
+    }
+
     /**
      * Test to find all schemas by namespace
      */
@@ -137,11 +247,50 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
 
         when(schemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one")).thenReturn(Mono.empty());
+        when(schemaRegistryClient.getCurrentCompatibilityBySubject(any(), any())).thenReturn(Mono.just(buildCompatibilityResponse()));
 
         StepVerifier.create(schemaService.getLatestSubject(namespace, "prefix.schema-one"))
                 .verifyComplete();
     }
 
+    /**
+     * Test the compatibility of a subject is cached until it is updated
+     */
+    @Test
+    void getBySubjectAndVersionCachedCompatibility() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(schemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(buildSchemaResponse("prefix.schema-one")));
+        when(schemaRegistryClient.getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(buildCompatibilityResponse()));
+        when(schemaRegistryClient.updateSubjectCompatibility(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaCompatibilityResponse.builder()
+                        .compatibilityLevel(Schema.Compatibility.FORWARD)
+                        .build()));
+
+        StepVerifier.create(schemaService.getLatestSubject(namespace, "prefix.schema-one"))
+                .consumeNextWith(latestSubject -> assertEquals(Schema.Compatibility.BACKWARD, latestSubject.getSpec().getCompatibility()))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.getLatestSubject(namespace, "prefix.schema-one"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(schemaRegistryClient, times(1)).getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one");
+
+        StepVerifier.create(schemaService.updateSubjectCompatibility(namespace, schema, Schema.Compatibility.FORWARD))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.getLatestSubject(namespace, "prefix.schema-one"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(schemaRegistryClient, times(2)).getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one");
+    }
+
 
     /**
      * Test to register a new schema to the schema registry
@@ -159,6 +308,42 @@ class SchemaServiceTest {
                 .verifyComplete();
     }
 
+    /**
+     * Test a registered schema is known as the latest version of its subject until the subject is deleted
+     */
+    @Test
+    void isLatestSchemaAfterRegister() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+        Schema reformattedSchema = buildSchema();
+        reformattedSchema.getSpec().setSchema(" " + schema.getSpec().getSchema().replace(",", ", ") + "\n");
+        Schema otherSchema = buildSchema();
+        otherSchema.getSpec().setSchema(schema.getSpec().getSchema().replace("firstName", "surname"));
+
+        when(schemaRegistryClient.register(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaResponse.builder().id(1).version(1).build()));
+        when(schemaRegistryClient.deleteSubject(namespace.getMetadata().getCluster(), "prefix.schema-one", false))
+                .thenReturn(Mono.just(new Integer[]{1}));
+        when(schemaRegistryClient.deleteSubject(namespace.getMetadata().getCluster(), "prefix.schema-one", true))
+                .thenReturn(Mono.just(new Integer[]{1}));
+
+        assertFalse(schemaService.isLatestSchema(namespace, schema));
+
+        StepVerifier.create(schemaService.register(namespace, schema))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertTrue(schemaService.isLatestSchema(namespace, schema));
+        assertTrue(schemaService.isLatestSchema(namespace, reformattedSchema));
+        assertFalse(schemaService.isLatestSchema(namespace, otherSchema));
+
+        StepVerifier.create(schemaService.deleteSubject(namespace, "prefix.schema-one"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertFalse(schemaService.isLatestSchema(namespace, schema));
+    }
+
     /**
      * Test to delete a subject
      */
@@ -244,6 +429,146 @@ class SchemaServiceTest {
                 .verifyComplete();
     }
 
+    /**
+     * Test the schema compatibility validation is done locally once the versions of the subject are cached
+     */
+    @Test
+    void validateSchemaCompatibilityLocally() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+        Schema incompatibleSchema = buildSchema();
+        incompatibleSchema.getSpec().setSchema("{\"namespace\":\"com.michelin.kafka.producer.showcase.avro\",\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"}]}");
+        schemaRegistryConfig.setLocalCompatibilityCheck(true);
+
+        when(schemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaCompatibilityCheckResponse.builder()
+                        .isCompatible(true)
+                        .build()));
+        when(schemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(SchemaResponse.builder()
+                        .id(1)
+                        .version(1)
+                        .subject("prefix.schema-one")
+                        .schema(schema.getSpec().getSchema())
+                        .build()));
+        when(schemaRegistryClient.getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(buildCompatibilityResponse()));
+
+        // The versions of the subject are not cached yet
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), incompatibleSchema))
+                .consumeNextWith(errors -> {
+                    assertEquals(1, errors.size());
+                    assertTrue(errors.get(0).startsWith("Incompatible with version 1:"));
+                })
+                .verifyComplete();
+
+        verify(schemaRegistryClient, times(1)).validateSchemaCompatibility(any(), any(), any());
+        verify(schemaRegistryClient, never()).getAllSubjectVersions(any(), any());
+    }
+
+    /**
+     * Test all the versions of the subject are loaded for the local validation of a transitive compatibility
+     */
+    @Test
+    void validateSchemaCompatibilityLocallyTransitive() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+        schemaRegistryConfig.setLocalCompatibilityCheck(true);
+
+        when(schemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaCompatibilityCheckResponse.builder()
+                        .isCompatible(true)
+                        .build()));
+        when(schemaRegistryClient.getAllSubjectVersions(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(List.of(SchemaResponse.builder()
+                        .id(1)
+                        .version(1)
+                        .subject("prefix.schema-one")
+                        .schema(schema.getSpec().getSchema())
+                        .build())));
+        when(schemaRegistryClient.getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(SchemaCompatibilityResponse.builder()
+                        .compatibilityLevel(Schema.Compatibility.BACKWARD_TRANSITIVE)
+                        .build()));
+
+        // The versions of the subject are not cached yet
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        verify(schemaRegistryClient, times(1)).validateSchemaCompatibility(any(), any(), any());
+        verify(schemaRegistryClient, never()).getLatestSubject(any(), any());
+    }
+
+    /**
+     * Test versions of a subject loaded before the subject changed are not cached over the versions loaded after
+     */
+    @Test
+    void validateSchemaCompatibilityLocallyStaleVersions() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+        Schema incompatibleSchema = buildSchema();
+        incompatibleSchema.getSpec().setSchema("{\"namespace\":\"com.michelin.kafka.producer.showcase.avro\",\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"}]}");
+        schemaRegistryConfig.setLocalCompatibilityCheck(true);
+        Sinks.One<SchemaResponse> staleVersion = Sinks.one();
+
+        when(schemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaCompatibilityCheckResponse.builder()
+                        .isCompatible(true)
+                        .build()));
+        when(schemaRegistryClient.register(any(), any(), any()))
+                .thenReturn(Mono.just(SchemaResponse.builder().id(2).version(2).build()));
+        when(schemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(staleVersion.asMono())
+                .thenReturn(Mono.just(SchemaResponse.builder()
+                        .id(2)
+                        .version(2)
+                        .subject("prefix.schema-one")
+                        .schema(incompatibleSchema.getSpec().getSchema())
+                        .build()));
+        when(schemaRegistryClient.getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), "prefix.schema-one"))
+                .thenReturn(Mono.just(buildCompatibilityResponse()));
+
+        // The first load is still in flight when the subject changes
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.register(namespace, incompatibleSchema))
+                .consumeNextWith(id -> assertEquals(2, id))
+                .verifyComplete();
+
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        staleVersion.tryEmitValue(SchemaResponse.builder()
+                .id(1)
+                .version(1)
+                .subject("prefix.schema-one")
+                .schema(schema.getSpec().getSchema())
+                .build());
+
+        // The schema is checked against the version loaded after the subject changed, not against the stale one
+        StepVerifier.create(schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), incompatibleSchema))
+                .consumeNextWith(errors -> assertTrue(errors.isEmpty()))
+                .verifyComplete();
+
+        verify(schemaRegistryClient, times(2)).validateSchemaCompatibility(any(), any(), any());
+    }
+
     /**
      * Test the schema compatibility update when reset to default is asked
      */
@@ -299,6 +624,85 @@ class SchemaServiceTest {
         Assertions.assertTrue(schemaService.isNamespaceOwnerOfSubject(ns, "prefix.schema-one"));
     }
 
+    /**
+     * Test the subjects not owned by a namespace are found from its ACLs in one pass
+     */
+    @Test
+    void findNotOwnedSubjects() {
+        Namespace ns = buildNamespace();
+        when(accessControlEntryService.findAllGrantedToNamespace(ns))
+                .thenReturn(List.of(
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("myNamespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                                        .resource("prefix.")
+                                        .build())
+                                .build(),
+                        AccessControlEntry.builder()
+                                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                        .permission(AccessControlEntry.Permission.OWNER)
+                                        .grantedTo("myNamespace")
+                                        .resourcePatternType(AccessControlEntry.ResourcePatternType.LITERAL)
+                                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                                        .resource("other.topic")
+                                        .build())
+                                .build()));
+
+        assertEquals(Set.of("other.topic2-value", "another.topic-key"), schemaService.findNotOwnedSubjects(ns,
+                List.of("prefix.schema-one-value", "other.topic-key", "other.topic2-value", "another.topic-key")));
+    }
+
+    /**
+     * Test the schemas are grouped so the referenced schemas come before the schemas referencing them
+     * The schemas referencing each other circularly are left out
+     */
+    @Test
+    void groupByReferenceDepth() {
+        Schema address = buildSchema();
+        address.getMetadata().setName("prefix.address-value");
+        Schema person = buildSchema();
+        person.getMetadata().setName("prefix.person-value");
+        person.getSpec().setReferences(List.of(buildReference("prefix.address-value"), buildReference("external.country-value")));
+        Schema company = buildSchema();
+        company.getMetadata().setName("prefix.company-value");
+        company.getSpec().setReferences(List.of(buildReference("prefix.person-value")));
+        Schema firstCircular = buildSchema();
+        firstCircular.getMetadata().setName("prefix.first-value");
+        firstCircular.getSpec().setReferences(List.of(buildReference("prefix.second-value")));
+        Schema secondCircular = buildSchema();
+        secondCircular.getMetadata().setName("prefix.second-value");
+        secondCircular.getSpec().setReferences(List.of(buildReference("prefix.first-value")));
+
+        List<List<Schema>> groups = schemaService.groupByReferenceDepth(List.of(company, firstCircular, person, address, secondCircular));
+
+        assertEquals(3, groups.size());
+        assertEquals(List.of(address), groups.get(0));
+        assertEquals(List.of(person), groups.get(1));
+        assertEquals(List.of(company), groups.get(2));
+    }
+
+    /**
+     * Test only the schemas on a reference cycle are found circular, not the schemas referencing them
+     */
+    @Test
+    void findCircularSubjects() {
+        Schema firstCircular = buildSchema();
+        firstCircular.getMetadata().setName("prefix.first-value");
+        firstCircular.getSpec().setReferences(List.of(buildReference("prefix.second-value")));
+        Schema secondCircular = buildSchema();
+        secondCircular.getMetadata().setName("prefix.second-value");
+        secondCircular.getSpec().setReferences(List.of(buildReference("prefix.first-value")));
+        Schema referencingCircular = buildSchema();
+        referencingCircular.getMetadata().setName("prefix.third-value");
+        referencingCircular.getSpec().setReferences(List.of(buildReference("prefix.first-value"), buildReference("prefix.third-value")));
+
+        assertEquals(Set.of("prefix.first-value", "prefix.second-value"),
+                schemaService.findCircularSubjects(List.of(firstCircular, secondCircular, referencingCircular)));
+    }
+
     /**
      * Build a namespace resource
      * @return The namespace
@@ -353,4 +757,34 @@ class SchemaServiceTest {
                 .compatibilityLevel(Schema.Compatibility.BACKWARD)
                 .build();
     }
+
+    /**
+     * Build a schema reference
+     * @param subject The referenced subject
+     * @return The schema reference
+     */
+    private Schema.SchemaSpec.Reference buildReference(String subject) {
+        return Schema.SchemaSpec.Reference.builder()
+                .name(subject)
+                .subject(subject)
+                .version(1)
+                .build();
+    }
+
+    /**
+     * Build an ACL granting the ownership of the topics of a prefix to the namespace
+     * @param prefix The prefix
+     * @return The ACL
+     */
+    private AccessControlEntry buildOwnerAccessControlEntry(String prefix) {
+        return AccessControlEntry.builder()
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .permission(AccessControlEntry.Permission.OWNER)
+                        .grantedTo("namespace")
+                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                        .resource(prefix)
+                        .build())
+                .build();
+    }
 }
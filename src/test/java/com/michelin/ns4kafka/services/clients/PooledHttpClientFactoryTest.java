@@ -0,0 +1,61 @@
+package com.michelin.ns4kafka.services.clients;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.http.client.DefaultHttpClientConfiguration;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.micronaut.http.client.ServiceHttpClientConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PooledHttpClientFactoryTest {
+    @Mock
+    BeanContext beanContext;
+
+    @InjectMocks
+    PooledHttpClientFactory pooledHttpClientFactory;
+
+    /**
+     * Validate the HTTP client configuration keeps the operator settings and only overrides the pool and timeouts
+     */
+    @Test
+    void validateBuildHttpClientConfiguration() {
+        DefaultHttpClientConfiguration defaultHttpClientConfiguration = new DefaultHttpClientConfiguration();
+        defaultHttpClientConfiguration.setProxyType(Proxy.Type.HTTP);
+        defaultHttpClientConfiguration.setProxyAddress(new InetSocketAddress("proxy", 3128));
+        defaultHttpClientConfiguration.setEventLoopGroup("connect");
+        defaultHttpClientConfiguration.setReadTimeout(Duration.ofSeconds(10));
+        pooledHttpClientFactory.defaultHttpClientConfiguration = defaultHttpClientConfiguration;
+
+        when(beanContext.findBean(eq(ServiceHttpClientConfiguration.class), any())).thenReturn(Optional.empty());
+
+        HttpClientConfiguration configuration = pooledHttpClientFactory.buildHttpClientConfiguration("kafka-connect", httpClientConfiguration -> {
+            httpClientConfiguration.setReadTimeout(Duration.ofSeconds(30));
+            httpClientConfiguration.getConnectionPoolConfiguration().setMaxConnections(5);
+        });
+
+        Assertions.assertEquals(Proxy.Type.HTTP, configuration.getProxyType());
+        Assertions.assertEquals(new InetSocketAddress("proxy", 3128), configuration.getProxyAddress().orElseThrow());
+        Assertions.assertEquals("connect", configuration.getEventLoopGroup());
+        Assertions.assertEquals(Optional.of(Duration.ofSeconds(30)), configuration.getReadTimeout());
+        Assertions.assertTrue(configuration.getConnectionPoolConfiguration().isEnabled());
+        Assertions.assertEquals(5, configuration.getConnectionPoolConfiguration().getMaxConnections());
+
+        // The shared configuration is left untouched
+        Assertions.assertEquals(Optional.of(Duration.ofSeconds(10)), defaultHttpClientConfiguration.getReadTimeout());
+        Assertions.assertNotEquals(5, defaultHttpClientConfiguration.getConnectionPoolConfiguration().getMaxConnections());
+    }
+}
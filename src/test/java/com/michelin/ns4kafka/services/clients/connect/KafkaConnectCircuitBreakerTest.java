@@ -0,0 +1,92 @@
+package com.michelin.ns4kafka.services.clients.connect;
+
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.client.exceptions.ReadTimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+class KafkaConnectCircuitBreakerTest {
+    private KafkaConnectCircuitBreaker circuitBreaker;
+
+    private Instant now;
+
+    @BeforeEach
+    void init() {
+        KafkaConnectConfig kafkaConnectConfig = new KafkaConnectConfig();
+        kafkaConnectConfig.setCircuitBreakerFailureThreshold(2);
+        kafkaConnectConfig.setCircuitBreakerInitialBackoff(Duration.ofSeconds(30));
+        kafkaConnectConfig.setCircuitBreakerMaxBackoff(Duration.ofSeconds(90));
+
+        now = Instant.parse("2023-01-01T00:00:00Z");
+        circuitBreaker = new KafkaConnectCircuitBreaker();
+        circuitBreaker.kafkaConnectConfig = kafkaConnectConfig;
+        circuitBreaker.meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker.clock = Clock.fixed(now, ZoneOffset.UTC);
+    }
+
+    /**
+     * Validate the breaker opens after consecutive failures
+     */
+    @Test
+    void openAfterFailures() {
+        Assertions.assertTrue(circuitBreaker.tryAcquire("local", "connect"));
+        circuitBreaker.onError("local", "connect", ReadTimeoutException.TIMEOUT_EXCEPTION);
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.CLOSED, circuitBreaker.getState("local", "connect"));
+
+        circuitBreaker.onError("local", "connect", ReadTimeoutException.TIMEOUT_EXCEPTION);
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.OPEN, circuitBreaker.getState("local", "connect"));
+        Assertions.assertFalse(circuitBreaker.tryAcquire("local", "connect"));
+        Assertions.assertTrue(circuitBreaker.tryAcquire("local", "other-connect"));
+    }
+
+    /**
+     * Validate client errors do not open the breaker
+     */
+    @Test
+    void clientErrorsAreNotFailures() {
+        HttpClientResponseException notFound = new HttpClientResponseException("Not found", HttpResponse.status(HttpStatus.NOT_FOUND));
+        circuitBreaker.onError("local", "connect", notFound);
+        circuitBreaker.onError("local", "connect", notFound);
+
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.CLOSED, circuitBreaker.getState("local", "connect"));
+    }
+
+    /**
+     * Validate a single probe is let through once the backoff elapsed, and the backoff grows on failure
+     */
+    @Test
+    void halfOpenWithExponentialBackoff() {
+        HttpClientResponseException serverError = new HttpClientResponseException("Unavailable", HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE));
+        circuitBreaker.onError("local", "connect", serverError);
+        circuitBreaker.onError("local", "connect", serverError);
+
+        circuitBreaker.clock = Clock.fixed(now.plusSeconds(30), ZoneOffset.UTC);
+        Assertions.assertTrue(circuitBreaker.tryAcquire("local", "connect"));
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState("local", "connect"));
+        Assertions.assertFalse(circuitBreaker.tryAcquire("local", "connect"));
+
+        circuitBreaker.onError("local", "connect", serverError);
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.OPEN, circuitBreaker.getState("local", "connect"));
+
+        // The backoff doubled to 60 seconds
+        circuitBreaker.clock = Clock.fixed(now.plusSeconds(89), ZoneOffset.UTC);
+        Assertions.assertFalse(circuitBreaker.tryAcquire("local", "connect"));
+
+        circuitBreaker.clock = Clock.fixed(now.plusSeconds(90), ZoneOffset.UTC);
+        Assertions.assertTrue(circuitBreaker.tryAcquire("local", "connect"));
+
+        circuitBreaker.onSuccess("local", "connect");
+        Assertions.assertEquals(KafkaConnectCircuitBreaker.State.CLOSED, circuitBreaker.getState("local", "connect"));
+        Assertions.assertTrue(circuitBreaker.tryAcquire("local", "connect"));
+    }
+}
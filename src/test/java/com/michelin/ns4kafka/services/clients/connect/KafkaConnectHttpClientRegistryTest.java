@@ -0,0 +1,100 @@
+package com.michelin.ns4kafka.services.clients.connect;
+
+import com.michelin.ns4kafka.config.KafkaConnectConfig;
+import com.michelin.ns4kafka.services.clients.PooledHttpClientFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaConnectHttpClientRegistryTest {
+    private KafkaConnectHttpClientRegistry httpClientRegistry;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        KafkaConnectConfig kafkaConnectConfig = new KafkaConnectConfig();
+        kafkaConnectConfig.setHttpMaxConnections(1);
+
+        PooledHttpClientFactory pooledHttpClientFactory = mock(PooledHttpClientFactory.class);
+        when(pooledHttpClientFactory.createHttpClient(eq("kafka-connect"), any(), any()))
+                .thenAnswer(invocation -> mock(HttpClient.class));
+
+        meterRegistry = new SimpleMeterRegistry();
+        httpClientRegistry = new KafkaConnectHttpClientRegistry();
+        httpClientRegistry.kafkaConnectConfig = kafkaConnectConfig;
+        httpClientRegistry.meterRegistry = meterRegistry;
+        httpClientRegistry.pooledHttpClientFactory = pooledHttpClientFactory;
+    }
+
+    @AfterEach
+    void close() {
+        httpClientRegistry.close();
+    }
+
+    /**
+     * Validate each Kafka Connect gets its own HTTP client, reused while its URL does not change
+     */
+    @Test
+    void getHttpClientPerConnectCluster() {
+        HttpClient httpClient = httpClientRegistry.getHttpClient("local", "connect1", "http://localhost:8083");
+
+        Assertions.assertSame(httpClient, httpClientRegistry.getHttpClient("local", "connect1", "http://localhost:8083"));
+        Assertions.assertNotSame(httpClient, httpClientRegistry.getHttpClient("local", "connect2", "http://localhost:8083"));
+        Assertions.assertNotSame(httpClient, httpClientRegistry.getHttpClient("local", "connect1", "http://localhost:8084"));
+    }
+
+    /**
+     * Validate the HTTP client replaced after a URL change is closed only after a grace delay,
+     * so the requests still running on it are not interrupted
+     */
+    @Test
+    void closeReplacedHttpClientAfterGraceDelay() {
+        httpClientRegistry.kafkaConnectConfig.setHttpConnectTimeout(Duration.ofMillis(100));
+        httpClientRegistry.kafkaConnectConfig.setHttpReadTimeout(Duration.ofMillis(100));
+
+        HttpClient httpClient = httpClientRegistry.getHttpClient("local", "connect1", "http://localhost:8083");
+        HttpClient newHttpClient = httpClientRegistry.getHttpClient("local", "connect1", "http://localhost:8084");
+
+        verify(httpClient, never()).close();
+        verify(httpClient, timeout(5000)).close();
+        verify(newHttpClient, never()).close();
+    }
+
+    /**
+     * Validate the requests exceeding the pool size are counted as saturated
+     */
+    @Test
+    void trackSaturatedRequests() {
+        Sinks.One<String> pendingResponse = Sinks.one();
+
+        StepVerifier.create(Mono.zip(
+                        httpClientRegistry.track("local", "connect1", "http://localhost:8083", pendingResponse.asMono()),
+                        httpClientRegistry.track("local", "connect1", "http://localhost:8083", Mono.just("second"))))
+                .then(() -> {
+                    Assertions.assertEquals(1.0, meterRegistry.get("ns4kafka.connect.http.requests.saturated").counter().count());
+                    Assertions.assertEquals(1.0, meterRegistry.get("ns4kafka.connect.http.requests.in.flight").gauge().value());
+                    pendingResponse.tryEmitValue("first");
+                })
+                .expectNextCount(1)
+                .verifyComplete();
+
+        Assertions.assertEquals(0.0, meterRegistry.get("ns4kafka.connect.http.requests.in.flight").gauge().value());
+    }
+}
@@ -0,0 +1,87 @@
+package com.michelin.ns4kafka.services.clients.schema;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
+import com.michelin.ns4kafka.services.clients.PooledHttpClientFactory;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SchemaRegistryHttpClientRegistryTest {
+    private SchemaRegistryHttpClientRegistry httpClientRegistry;
+
+    @BeforeEach
+    void init() {
+        SchemaRegistryConfig schemaRegistryConfig = new SchemaRegistryConfig();
+        schemaRegistryConfig.setHttpMaxConnections(1);
+
+        PooledHttpClientFactory pooledHttpClientFactory = mock(PooledHttpClientFactory.class);
+        when(pooledHttpClientFactory.createHttpClient(eq("schema-registry"), any(), any()))
+                .thenAnswer(invocation -> mock(HttpClient.class));
+
+        KafkaAsyncExecutorConfig.RegistryConfig securedRegistry = new KafkaAsyncExecutorConfig.RegistryConfig();
+        securedRegistry.setUrl("http://localhost:8081/");
+        securedRegistry.setBasicAuthUsername("user");
+        securedRegistry.setBasicAuthPassword("password");
+        KafkaAsyncExecutorConfig local = new KafkaAsyncExecutorConfig("local");
+        local.setSchemaRegistry(securedRegistry);
+
+        KafkaAsyncExecutorConfig.RegistryConfig registry = new KafkaAsyncExecutorConfig.RegistryConfig();
+        registry.setUrl("http://localhost:8082");
+        KafkaAsyncExecutorConfig remote = new KafkaAsyncExecutorConfig("remote");
+        remote.setSchemaRegistry(registry);
+
+        httpClientRegistry = new SchemaRegistryHttpClientRegistry();
+        httpClientRegistry.kafkaAsyncExecutorConfigs = List.of(local, remote, new KafkaAsyncExecutorConfig("noRegistry"));
+        httpClientRegistry.schemaRegistryConfig = schemaRegistryConfig;
+        httpClientRegistry.meterRegistry = new SimpleMeterRegistry();
+        httpClientRegistry.pooledHttpClientFactory = pooledHttpClientFactory;
+    }
+
+    @AfterEach
+    void close() {
+        httpClientRegistry.close();
+    }
+
+    /**
+     * Validate each Schema Registry gets its own HTTP client, base URL and authorization, computed once
+     */
+    @Test
+    void getEndpointPerKafkaCluster() {
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint local = httpClientRegistry.getEndpoint("local");
+        SchemaRegistryHttpClientRegistry.SchemaRegistryEndpoint remote = httpClientRegistry.getEndpoint("remote");
+
+        Assertions.assertSame(local, httpClientRegistry.getEndpoint("local"));
+        Assertions.assertNotSame(local.httpClient(), remote.httpClient());
+        Assertions.assertEquals(URI.create("http://localhost:8081/subjects"), local.uri("/subjects"));
+        Assertions.assertEquals("Basic dXNlcjpwYXNzd29yZA==", local.authorization());
+        Assertions.assertEquals(URI.create("http://localhost:8082/subjects"), remote.uri("/subjects"));
+        Assertions.assertNull(remote.authorization());
+    }
+
+    /**
+     * Validate an unknown Kafka cluster or a Kafka cluster without Schema Registry is rejected
+     */
+    @Test
+    void getEndpointUnknown() {
+        ResourceValidationException notFound = Assertions.assertThrows(ResourceValidationException.class,
+                () -> httpClientRegistry.getEndpoint("unknown"));
+        Assertions.assertEquals(List.of("Kafka Cluster [unknown] not found"), notFound.getValidationErrors());
+
+        ResourceValidationException noRegistry = Assertions.assertThrows(ResourceValidationException.class,
+                () -> httpClientRegistry.getEndpoint("noRegistry"));
+        Assertions.assertEquals(List.of("Kafka Cluster [noRegistry] has no schema registry"), noRegistry.getValidationErrors());
+    }
+}
@@ -0,0 +1,158 @@
+package com.michelin.ns4kafka.services.clients.schema;
+
+import com.michelin.ns4kafka.config.SchemaRegistryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SchemaRegistryRequestCoalescerTest {
+    private SchemaRegistryRequestCoalescer requestCoalescer;
+
+    private SchemaRegistryConfig schemaRegistryConfig;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        schemaRegistryConfig = new SchemaRegistryConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new SchemaRegistryRequestCoalescer();
+        requestCoalescer.schemaRegistryConfig = schemaRegistryConfig;
+        requestCoalescer.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Validate the identical requests in flight are sent once, and sent again once the response is received
+     */
+    @Test
+    void coalesceRequestsInFlight() {
+        AtomicInteger sentRequests = new AtomicInteger();
+        Sinks.One<String> pendingResponse = Sinks.one();
+
+        StepVerifier.create(Mono.zip(
+                        requestCoalescer.coalesce("local", "/subjects", () -> {
+                            sentRequests.incrementAndGet();
+                            return pendingResponse.asMono();
+                        }),
+                        requestCoalescer.coalesce("local", "/subjects", () -> {
+                            sentRequests.incrementAndGet();
+                            return Mono.just("second");
+                        })))
+                .then(() -> pendingResponse.tryEmitValue("first"))
+                .consumeNextWith(responses -> {
+                    Assertions.assertEquals("first", responses.getT1());
+                    Assertions.assertEquals("first", responses.getT2());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(requestCoalescer.coalesce("local", "/subjects", () -> {
+                    sentRequests.incrementAndGet();
+                    return Mono.just("third");
+                }))
+                .expectNext("third")
+                .verifyComplete();
+
+        Assertions.assertEquals(2, sentRequests.get());
+        Assertions.assertEquals(2.0, meterRegistry.get("ns4kafka.schema.registry.requests").tag("result", "sent").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("ns4kafka.schema.registry.requests").tag("result", "coalesced").counter().count());
+    }
+
+    /**
+     * Validate the responses are kept during the request cache TTL, until they are invalidated
+     */
+    @Test
+    void coalesceRequestsCached() {
+        schemaRegistryConfig.setRequestCacheTtl(Duration.ofMinutes(1));
+        AtomicInteger sentRequests = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(requestCoalescer.coalesce("local", "/config/prefix.subject-value",
+                            () -> Mono.just(sentRequests.incrementAndGet())))
+                    .expectNext(1)
+                    .verifyComplete();
+        }
+
+        requestCoalescer.invalidate("local", "/config/prefix.subject-value");
+
+        StepVerifier.create(requestCoalescer.coalesce("local", "/config/prefix.subject-value",
+                        () -> Mono.just(sentRequests.incrementAndGet())))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    /**
+     * Validate a request completing after an invalidation does not forget the newer identical request stored since
+     */
+    @Test
+    void coalesceRequestsInvalidatedInFlight() {
+        AtomicInteger sentRequests = new AtomicInteger();
+        Sinks.One<String> firstResponse = Sinks.one();
+        Sinks.One<String> secondResponse = Sinks.one();
+
+        requestCoalescer.coalesce("local", "/subjects", () -> {
+            sentRequests.incrementAndGet();
+            return firstResponse.asMono();
+        }).subscribe();
+
+        requestCoalescer.invalidate("local", "/subjects");
+
+        Mono<String> second = requestCoalescer.coalesce("local", "/subjects", () -> {
+            sentRequests.incrementAndGet();
+            return secondResponse.asMono();
+        });
+        second.subscribe();
+
+        firstResponse.tryEmitValue("first");
+
+        StepVerifier.create(Mono.zip(second, requestCoalescer.coalesce("local", "/subjects", () -> {
+                            sentRequests.incrementAndGet();
+                            return Mono.just("third");
+                        })))
+                .then(() -> secondResponse.tryEmitValue("second"))
+                .consumeNextWith(responses -> {
+                    Assertions.assertEquals("second", responses.getT1());
+                    Assertions.assertEquals("second", responses.getT2());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(2, sentRequests.get());
+    }
+
+    /**
+     * Validate the errors are not kept, even with a request cache TTL
+     */
+    @Test
+    void coalesceRequestsErrorsNotCached() {
+        schemaRegistryConfig.setRequestCacheTtl(Duration.ofMinutes(1));
+
+        StepVerifier.create(requestCoalescer.coalesce("local", "/subjects", () -> Mono.error(new IllegalStateException("Unavailable"))))
+                .verifyError(IllegalStateException.class);
+
+        StepVerifier.create(requestCoalescer.coalesce("local", "/subjects", () -> Mono.just("subjects")))
+                .expectNext("subjects")
+                .verifyComplete();
+    }
+
+    /**
+     * Validate the requests of different Kafka clusters are not coalesced
+     */
+    @Test
+    void coalesceRequestsPerKafkaCluster() {
+        schemaRegistryConfig.setRequestCacheTtl(Duration.ofMinutes(1));
+
+        StepVerifier.create(requestCoalescer.coalesce("local", "/subjects", () -> Mono.just("local")))
+                .expectNext("local")
+                .verifyComplete();
+
+        StepVerifier.create(requestCoalescer.coalesce("remote", "/subjects", () -> Mono.just("remote")))
+                .expectNext("remote")
+                .verifyComplete();
+    }
+}
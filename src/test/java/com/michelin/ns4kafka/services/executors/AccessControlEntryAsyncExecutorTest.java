@@ -0,0 +1,253 @@
+package com.michelin.ns4kafka.services.executors;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.KafkaStream;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.ReconciliationAction;
+import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.services.AccessControlEntryService;
+import com.michelin.ns4kafka.services.StreamService;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeAclsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessControlEntryAsyncExecutorTest {
+    private static final String CLUSTER = "local";
+
+    @Mock
+    AccessControlEntryService accessControlEntryService;
+
+    @Mock
+    StreamService streamService;
+
+    @Mock
+    NamespaceRepository namespaceRepository;
+
+    @Mock
+    Admin adminClient;
+
+    AccessControlEntryAsyncExecutor accessControlEntryAsyncExecutor;
+
+    @BeforeEach
+    void init() {
+        KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig(CLUSTER);
+        kafkaAsyncExecutorConfig.setManageAcls(true);
+        kafkaAsyncExecutorConfig.setAdminClient(adminClient);
+
+        accessControlEntryAsyncExecutor = new AccessControlEntryAsyncExecutor(kafkaAsyncExecutorConfig);
+        accessControlEntryAsyncExecutor.accessControlEntryService = accessControlEntryService;
+        accessControlEntryAsyncExecutor.streamService = streamService;
+        accessControlEntryAsyncExecutor.namespaceRepository = namespaceRepository;
+
+        DescribeAclsResult describeAclsResult = mock(DescribeAclsResult.class);
+        when(describeAclsResult.values()).thenReturn(KafkaFuture.<Collection<AclBinding>>completedFuture(List.of()));
+        when(adminClient.describeAcls(AclBindingFilter.ANY)).thenReturn(describeAclsResult);
+    }
+
+    /**
+     * Validate the ACLs of a namespace are reused when its Kafka user, its ACLs and its Kafka Streams are the same instances,
+     * even if these instances have been changed in place
+     */
+    @Test
+    void planReusesNamespaceACLs() throws Exception {
+        AccessControlEntry acl = buildACL("prefix.");
+        KafkaStream stream = buildStream("prefix.stream");
+
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+        when(accessControlEntryService.findAll()).thenReturn(List.of(acl));
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of(stream));
+
+        Set<String> expected = Set.of(
+                buildAclBinding(ResourceType.TOPIC, "prefix.", "user1", AclOperation.READ),
+                buildAclBinding(ResourceType.TOPIC, "prefix.stream", "user1", AclOperation.CREATE),
+                buildAclBinding(ResourceType.TOPIC, "prefix.stream", "user1", AclOperation.DELETE),
+                buildAclBinding(ResourceType.TRANSACTIONAL_ID, "prefix.stream", "user1", AclOperation.WRITE));
+        assertEquals(expected, plannedACLs());
+
+        acl.getSpec().setResource("other.");
+        stream.getMetadata().setName("prefix.other-stream");
+
+        assertEquals(expected, plannedACLs());
+    }
+
+    /**
+     * Validate the ACLs of a namespace are rebuilt when one of its ACLs is replaced
+     */
+    @Test
+    void planRebuildsNamespaceACLsWhenACLChanged() throws Exception {
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+        when(accessControlEntryService.findAll()).thenReturn(List.of(buildACL("prefix.")));
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of());
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "prefix.", "user1", AclOperation.READ)), plannedACLs());
+
+        when(accessControlEntryService.findAll()).thenReturn(List.of(buildACL("other.")));
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "other.", "user1", AclOperation.READ)), plannedACLs());
+    }
+
+    /**
+     * Validate the ACLs of a namespace are rebuilt when one of its Kafka Streams is replaced
+     */
+    @Test
+    void planRebuildsNamespaceACLsWhenKafkaStreamChanged() throws Exception {
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+        when(accessControlEntryService.findAll()).thenReturn(List.of());
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of(buildStream("prefix.stream")));
+
+        assertTrue(plannedACLs().contains(buildAclBinding(ResourceType.TOPIC, "prefix.stream", "user1", AclOperation.CREATE)));
+
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of(buildStream("prefix.other-stream")));
+
+        assertEquals(Set.of(
+                buildAclBinding(ResourceType.TOPIC, "prefix.other-stream", "user1", AclOperation.CREATE),
+                buildAclBinding(ResourceType.TOPIC, "prefix.other-stream", "user1", AclOperation.DELETE),
+                buildAclBinding(ResourceType.TRANSACTIONAL_ID, "prefix.other-stream", "user1", AclOperation.WRITE)),
+                plannedACLs());
+    }
+
+    /**
+     * Validate the ACLs of a namespace are rebuilt when its Kafka user changes, while its ACLs are the same instances
+     */
+    @Test
+    void planRebuildsNamespaceACLsWhenKafkaUserChanged() throws Exception {
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+        when(accessControlEntryService.findAll()).thenReturn(List.of(buildACL("prefix.")));
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of());
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "prefix.", "user1", AclOperation.READ)), plannedACLs());
+
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user2")));
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "prefix.", "user2", AclOperation.READ)), plannedACLs());
+    }
+
+    /**
+     * Validate the ACLs of a deleted namespace are forgotten, so they are rebuilt if the namespace is created again
+     */
+    @Test
+    void planForgetsDeletedNamespaceACLs() throws Exception {
+        AccessControlEntry acl = buildACL("prefix.");
+
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+        when(accessControlEntryService.findAll()).thenReturn(List.of(acl));
+        when(streamService.findAllForCluster(CLUSTER)).thenReturn(List.of());
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "prefix.", "user1", AclOperation.READ)), plannedACLs());
+
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of());
+
+        assertTrue(plannedACLs().isEmpty());
+
+        acl.getSpec().setResource("other.");
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(buildNamespace("user1")));
+
+        assertEquals(Set.of(buildAclBinding(ResourceType.TOPIC, "other.", "user1", AclOperation.READ)), plannedACLs());
+    }
+
+    /**
+     * Plan the ACL changes
+     * As no ACL is found on the broker, all the ACLs built from Ns4Kafka are to be created
+     * @return The planned ACLs
+     */
+    private Set<String> plannedACLs() throws Exception {
+        List<ReconciliationAction> actions = accessControlEntryAsyncExecutor.plan();
+        assertTrue(actions.stream().allMatch(action -> action.getSpec().getAction() == ReconciliationAction.Action.CREATE));
+        return actions.stream()
+                .flatMap(action -> action.getSpec().getChanges().stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Build a namespace
+     * @param kafkaUser The Kafka user of the namespace
+     * @return The namespace
+     */
+    private Namespace buildNamespace(String kafkaUser) {
+        return Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster(CLUSTER)
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .kafkaUser(kafkaUser)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Build a prefixed topic read ACL granted to the namespace
+     * @param resource The prefix of the topics
+     * @return The ACL
+     */
+    private AccessControlEntry buildACL(String resource) {
+        return AccessControlEntry.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("acl-" + resource)
+                        .namespace("admin")
+                        .cluster(CLUSTER)
+                        .build())
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                        .resource(resource)
+                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                        .permission(AccessControlEntry.Permission.READ)
+                        .grantedTo("namespace")
+                        .build())
+                .build();
+    }
+
+    /**
+     * Build a Kafka Stream of the namespace
+     * @param name The name of the Kafka Stream
+     * @return The Kafka Stream
+     */
+    private KafkaStream buildStream(String name) {
+        return KafkaStream.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(name)
+                        .namespace("namespace")
+                        .cluster(CLUSTER)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Build the description of a prefixed Kafka ACL
+     * @param resourceType The type of the resource
+     * @param resource The prefix of the resources
+     * @param kafkaUser The Kafka user
+     * @param operation The allowed operation
+     * @return The description of the Kafka ACL
+     */
+    private String buildAclBinding(ResourceType resourceType, String resource, String kafkaUser, AclOperation operation) {
+        return new AclBinding(new ResourcePattern(resourceType, resource, PatternType.PREFIXED),
+                new org.apache.kafka.common.acl.AccessControlEntry("User:" + kafkaUser, "*", operation, AclPermissionType.ALLOW))
+                .toString();
+    }
+}
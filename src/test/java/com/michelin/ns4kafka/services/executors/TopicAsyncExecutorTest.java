@@ -0,0 +1,220 @@
+package com.michelin.ns4kafka.services.executors;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.ReconciliationAction;
+import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.repositories.TopicRepository;
+import org.apache.kafka.clients.admin.*;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.InvalidConfigurationException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopicAsyncExecutorTest {
+    private static final String CLUSTER = "local";
+
+    @Mock
+    TopicRepository topicRepository;
+
+    @Mock
+    Admin adminClient;
+
+    @Captor
+    ArgumentCaptor<List<Topic>> topicsCaptor;
+
+    TopicAsyncExecutor topicAsyncExecutor;
+
+    @BeforeEach
+    void init() {
+        KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig(CLUSTER);
+        kafkaAsyncExecutorConfig.setManageTopics(true);
+        kafkaAsyncExecutorConfig.setAdminClient(adminClient);
+
+        topicAsyncExecutor = new TopicAsyncExecutor(kafkaAsyncExecutorConfig);
+        topicAsyncExecutor.topicRepository = topicRepository;
+    }
+
+    /**
+     * Validate the plan after the creation of a topic without configs has nothing to do for it
+     */
+    @Test
+    void planAfterCreatingTopicWithoutConfigs() throws Exception {
+        Topic topic = buildTopic("prefix.topic", null);
+
+        stubBrokerTopics(Map.of());
+        when(topicRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(topic));
+        stubCreateTopics(Map.of("prefix.topic", KafkaFuture.completedFuture(null)));
+        stubAlterTopics(Map.of());
+
+        topicAsyncExecutor.synchronizeTopics();
+        List<ReconciliationAction> actions = topicAsyncExecutor.plan();
+
+        assertTrue(actions.isEmpty());
+    }
+
+    /**
+     * Validate the created topics and the altered topics are written back to the store in one batch each,
+     * with their status and generation, while the topics already up to date are not written
+     */
+    @Test
+    void synchronizeTopicsWritesBatches() {
+        Topic createdTopic = buildTopic("prefix.created", Map.of("cleanup.policy", "delete"));
+        Topic alteredTopic = buildTopic("prefix.altered", Map.of("cleanup.policy", "compact"));
+        alteredTopic.getMetadata().setGeneration(1);
+        Topic upToDateTopic = buildTopic("prefix.up-to-date", Map.of("cleanup.policy", "delete"));
+        upToDateTopic.getMetadata().setGeneration(1);
+
+        stubBrokerTopics(Map.of(
+                "prefix.altered", Map.of("cleanup.policy", "delete"),
+                "prefix.up-to-date", Map.of("cleanup.policy", "delete")));
+        when(topicRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(createdTopic, alteredTopic, upToDateTopic));
+        stubCreateTopics(Map.of("prefix.created", KafkaFuture.completedFuture(null)));
+        stubAlterTopics(Map.of("prefix.altered", KafkaFuture.completedFuture(null)));
+
+        topicAsyncExecutor.synchronizeTopics();
+
+        verify(topicRepository, times(2)).createAll(topicsCaptor.capture());
+        List<Topic> createdTopics = topicsCaptor.getAllValues().get(0);
+        assertEquals(List.of("prefix.created"), createdTopics.stream().map(topic -> topic.getMetadata().getName()).toList());
+        assertEquals(Topic.TopicPhase.Success, createdTopics.get(0).getStatus().getPhase());
+        assertEquals("Topic created", createdTopics.get(0).getStatus().getMessage());
+        assertEquals(1, createdTopics.get(0).getMetadata().getGeneration());
+
+        List<Topic> alteredTopics = topicsCaptor.getAllValues().get(1);
+        assertEquals(List.of("prefix.altered"), alteredTopics.stream().map(topic -> topic.getMetadata().getName()).toList());
+        assertEquals(Topic.TopicPhase.Success, alteredTopics.get(0).getStatus().getPhase());
+        assertEquals("Topic configs updated", alteredTopics.get(0).getStatus().getMessage());
+        assertEquals(2, alteredTopics.get(0).getMetadata().getGeneration());
+
+        assertEquals(Topic.TopicPhase.Pending, upToDateTopic.getStatus().getPhase());
+    }
+
+    /**
+     * Validate the statuses of the created topics are written back before the alteration,
+     * and the topics whose alteration failed are written back with a failed status and the same generation
+     */
+    @Test
+    void synchronizeTopicsAlterationFailed() {
+        Topic createdTopic = buildTopic("prefix.created", null);
+        Topic alteredTopic = buildTopic("prefix.altered", Map.of("cleanup.policy", "compact"));
+        alteredTopic.getMetadata().setGeneration(1);
+        KafkaFutureImpl<Void> failedAlteration = new KafkaFutureImpl<>();
+        failedAlteration.completeExceptionally(new InvalidConfigurationException("Invalid cleanup.policy"));
+
+        stubBrokerTopics(Map.of("prefix.altered", Map.of("cleanup.policy", "delete")));
+        when(topicRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(createdTopic, alteredTopic));
+        stubCreateTopics(Map.of("prefix.created", KafkaFuture.completedFuture(null)));
+        stubAlterTopics(Map.of("prefix.altered", failedAlteration));
+
+        topicAsyncExecutor.synchronizeTopics();
+
+        InOrder inOrder = inOrder(adminClient, topicRepository);
+        inOrder.verify(topicRepository).createAll(List.of(createdTopic));
+        inOrder.verify(adminClient).incrementalAlterConfigs(anyMap());
+        inOrder.verify(topicRepository).createAll(List.of(alteredTopic));
+
+        assertEquals(Topic.TopicPhase.Success, createdTopic.getStatus().getPhase());
+        assertEquals(Topic.TopicPhase.Failed, alteredTopic.getStatus().getPhase());
+        assertTrue(alteredTopic.getStatus().getMessage().startsWith("Error while updating topic configs:"));
+        assertEquals(1, alteredTopic.getMetadata().getGeneration());
+    }
+
+    /**
+     * Build a topic
+     * @param name The name of the topic
+     * @param configs The configs of the topic
+     * @return The topic
+     */
+    private Topic buildTopic(String name, Map<String, String> configs) {
+        return Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(CLUSTER)
+                        .namespace("namespace")
+                        .name(name)
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .partitions(1)
+                        .replicationFactor(1)
+                        .configs(configs)
+                        .build())
+                .status(Topic.TopicStatus.ofPending())
+                .build();
+    }
+
+    /**
+     * Stub the topics found on the broker
+     * @param topics The dynamic configs of the broker topics, by topic name
+     */
+    private void stubBrokerTopics(Map<String, Map<String, String>> topics) {
+        ListTopicsResult listTopicsResult = mock(ListTopicsResult.class);
+        when(listTopicsResult.listings()).thenReturn(KafkaFuture.completedFuture(topics.keySet().stream()
+                .map(name -> new TopicListing(name, Uuid.randomUuid(), false))
+                .toList()));
+        when(adminClient.listTopics()).thenReturn(listTopicsResult);
+
+        Node node = new Node(0, "localhost", 9092);
+        DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
+        when(describeTopicsResult.all()).thenReturn(KafkaFuture.completedFuture(topics.keySet().stream()
+                .collect(Collectors.toMap(Function.identity(), name -> new TopicDescription(name, false,
+                        List.of(new TopicPartitionInfo(0, node, List.of(node), List.of(node))))))));
+        when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+
+        DescribeConfigsResult describeConfigsResult = mock(DescribeConfigsResult.class);
+        when(describeConfigsResult.all()).thenReturn(KafkaFuture.completedFuture(topics.entrySet().stream()
+                .collect(Collectors.toMap(entry -> new ConfigResource(ConfigResource.Type.TOPIC, entry.getKey()),
+                        entry -> new Config(entry.getValue().entrySet().stream()
+                                .map(config -> new ConfigEntry(config.getKey(), config.getValue(), ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG,
+                                        false, false, List.of(), ConfigEntry.ConfigType.STRING, null))
+                                .toList())))));
+        when(adminClient.describeConfigs(anyCollection())).thenReturn(describeConfigsResult);
+    }
+
+    /**
+     * Stub the creation of topics
+     * @param results The result of the creation, by topic name
+     */
+    private void stubCreateTopics(Map<String, KafkaFuture<Void>> results) {
+        CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+        when(createTopicsResult.values()).thenReturn(results);
+        when(adminClient.createTopics(anyCollection())).thenReturn(createTopicsResult);
+    }
+
+    /**
+     * Stub the alteration of topic configs
+     * @param results The result of the alteration, by topic name
+     */
+    private void stubAlterTopics(Map<String, KafkaFuture<Void>> results) {
+        AlterConfigsResult alterConfigsResult = mock(AlterConfigsResult.class);
+        when(alterConfigsResult.values()).thenReturn(results.entrySet().stream()
+                .collect(Collectors.toMap(entry -> new ConfigResource(ConfigResource.Type.TOPIC, entry.getKey()), Map.Entry::getValue)));
+        when(adminClient.incrementalAlterConfigs(anyMap())).thenReturn(alterConfigsResult);
+    }
+}
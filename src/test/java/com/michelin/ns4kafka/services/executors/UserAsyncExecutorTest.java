@@ -0,0 +1,222 @@
+package com.michelin.ns4kafka.services.executors;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.quota.ResourceQuota;
+import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterClientQuotasResult;
+import org.apache.kafka.clients.admin.DescribeClientQuotasResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.quota.ClientQuotaAlteration;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.apache.kafka.common.quota.ClientQuotaFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserAsyncExecutorTest {
+    private static final String CLUSTER = "local";
+
+    @Mock
+    NamespaceRepository namespaceRepository;
+
+    @Mock
+    ResourceQuotaRepository quotaRepository;
+
+    @Mock
+    Admin adminClient;
+
+    @Captor
+    ArgumentCaptor<Collection<ClientQuotaAlteration>> alterationsCaptor;
+
+    KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig(CLUSTER, KafkaAsyncExecutorConfig.KafkaProvider.SELF_MANAGED);
+        kafkaAsyncExecutorConfig.setManageUsers(true);
+        kafkaAsyncExecutorConfig.setQuotaBatchSize(1);
+        kafkaAsyncExecutorConfig.setAdminClient(adminClient);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Validate only the created and changed user quotas are sent, one chunk at a time,
+     * and the quotas of the users no longer managed are deleted when asked
+     */
+    @Test
+    void synchronizeUsers() {
+        kafkaAsyncExecutorConfig.setDropUnsyncQuotas(true);
+        stubQuotas();
+
+        buildUserAsyncExecutor().synchronizeUsers();
+
+        verify(adminClient, times(3)).alterClientQuotas(alterationsCaptor.capture());
+        List<Collection<ClientQuotaAlteration>> chunks = alterationsCaptor.getAllValues();
+        assertTrue(chunks.stream().allMatch(chunk -> chunk.size() == 1));
+
+        Map<String, Map<String, Double>> appliedQuotas = chunks.subList(0, 2).stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toMap(alteration -> alteration.entity().entries().get(ClientQuotaEntity.USER), this::toQuotas));
+        assertEquals(Map.of(
+                "user-changed", Map.of("producer_byte_rate", 4096.0, "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE),
+                "user-new", Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE, "consumer_byte_rate", 8192.0)),
+                appliedQuotas);
+
+        ClientQuotaAlteration deletion = chunks.get(2).iterator().next();
+        assertEquals("user-removed", deletion.entity().entries().get(ClientQuotaEntity.USER));
+        assertTrue(deletion.ops().stream().allMatch(op -> op.value() == null));
+
+        assertEquals(1.0, driftCount("create"));
+        assertEquals(1.0, driftCount("update"));
+        assertEquals(1.0, driftCount("delete"));
+    }
+
+    /**
+     * Validate the quotas of the users no longer managed are kept when the unsynchronized quotas are not dropped,
+     * while their drift is still counted
+     */
+    @Test
+    void synchronizeUsersWithoutDrop() {
+        stubQuotas();
+
+        buildUserAsyncExecutor().synchronizeUsers();
+
+        verify(adminClient, times(2)).alterClientQuotas(alterationsCaptor.capture());
+        assertTrue(alterationsCaptor.getAllValues().stream()
+                .flatMap(Collection::stream)
+                .noneMatch(alteration -> "user-removed".equals(alteration.entity().entries().get(ClientQuotaEntity.USER))));
+
+        assertEquals(1.0, driftCount("delete"));
+    }
+
+    /**
+     * Build the user executor
+     * @return The user executor
+     */
+    private UserAsyncExecutor buildUserAsyncExecutor() {
+        UserAsyncExecutor userAsyncExecutor = new UserAsyncExecutor(kafkaAsyncExecutorConfig);
+        userAsyncExecutor.namespaceRepository = namespaceRepository;
+        userAsyncExecutor.quotaRepository = quotaRepository;
+        userAsyncExecutor.meterRegistry = meterRegistry;
+        return userAsyncExecutor;
+    }
+
+    /**
+     * Stub the user quotas of Ns4Kafka and of the broker
+     * The quotas of a user are unchanged, changed, created or no longer managed, and the default user quotas are left untouched
+     */
+    private void stubQuotas() {
+        when(namespaceRepository.findAllForCluster(CLUSTER)).thenReturn(List.of(
+                buildNamespace("user-unchanged"),
+                buildNamespace("user-changed"),
+                buildNamespace("user-new")));
+        when(quotaRepository.findForNamespace("ns-user-unchanged"))
+                .thenReturn(Optional.of(buildQuota(Map.of("user/producer_byte_rate", "1024", "user/consumer_byte_rate", "2048"))));
+        when(quotaRepository.findForNamespace("ns-user-changed"))
+                .thenReturn(Optional.of(buildQuota(Map.of("user/producer_byte_rate", "4096"))));
+        when(quotaRepository.findForNamespace("ns-user-new"))
+                .thenReturn(Optional.of(buildQuota(Map.of("user/consumer_byte_rate", "8192"))));
+
+        Map<ClientQuotaEntity, Map<String, Double>> brokerQuotas = new HashMap<>();
+        brokerQuotas.put(buildEntity("user-unchanged"), Map.of("producer_byte_rate", 1024.0, "consumer_byte_rate", 2048.0,
+                "request_percentage", 50.0));
+        brokerQuotas.put(buildEntity("user-changed"), Map.of("producer_byte_rate", 1024.0,
+                "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE));
+        brokerQuotas.put(buildEntity("user-removed"), Map.of("producer_byte_rate", 1024.0));
+        brokerQuotas.put(buildEntity(null), Map.of("producer_byte_rate", 1024.0));
+        when(adminClient.describeClientQuotas(any(ClientQuotaFilter.class)))
+                .thenReturn(new DescribeClientQuotasResult(KafkaFuture.completedFuture(brokerQuotas)));
+
+        when(adminClient.alterClientQuotas(any())).thenAnswer(invocation -> {
+            Collection<ClientQuotaAlteration> alterations = invocation.getArgument(0);
+            return new AlterClientQuotasResult(alterations.stream()
+                    .collect(Collectors.toMap(ClientQuotaAlteration::entity, alteration -> KafkaFuture.<Void>completedFuture(null))));
+        });
+    }
+
+    /**
+     * Build a namespace
+     * @param kafkaUser The Kafka user of the namespace
+     * @return The namespace
+     */
+    private Namespace buildNamespace(String kafkaUser) {
+        return Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("ns-" + kafkaUser)
+                        .cluster(CLUSTER)
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .kafkaUser(kafkaUser)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Build a resource quota
+     * @param spec The quotas
+     * @return The resource quota
+     */
+    private ResourceQuota buildQuota(Map<String, String> spec) {
+        return ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster(CLUSTER)
+                        .build())
+                .spec(spec)
+                .build();
+    }
+
+    /**
+     * Build the quota entity of a user
+     * @param user The user, null for the default user quotas
+     * @return The quota entity
+     */
+    private ClientQuotaEntity buildEntity(String user) {
+        return new ClientQuotaEntity(Collections.singletonMap(ClientQuotaEntity.USER, user));
+    }
+
+    /**
+     * Get the quotas set by an alteration
+     * @param alteration The alteration
+     * @return The quotas by name
+     */
+    private Map<String, Double> toQuotas(ClientQuotaAlteration alteration) {
+        return alteration.ops().stream()
+                .collect(Collectors.toMap(ClientQuotaAlteration.Op::key, ClientQuotaAlteration.Op::value));
+    }
+
+    /**
+     * Get the number of user quotas that drifted
+     * @param type The kind of drift
+     * @return The number of drifted user quotas
+     */
+    private double driftCount(String type) {
+        return meterRegistry.counter("ns4kafka.user.quotas.drift", "cluster", CLUSTER, "type", type).count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.michelin.ns4kafka.utils;
+
+import com.michelin.ns4kafka.models.schema.Schema;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+class AvroCompatibilityUtilsTest {
+    private static final String PERSON = "{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"}]}";
+    private static final String PERSON_WITH_OPTIONAL_LAST_NAME = "{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"},{\"name\":\"lastName\",\"type\":[\"null\",\"string\"],\"default\":null}]}";
+    private static final String PERSON_WITH_LAST_NAME = "{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"},{\"name\":\"lastName\",\"type\":\"string\"}]}";
+    private static final String PERSON_WITHOUT_FIRST_NAME = "{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"lastName\",\"type\":[\"null\",\"string\"],\"default\":null}]}";
+
+    /**
+     * Validate a new schema must be able to read the data written with the previous version, with a backward compatibility
+     */
+    @Test
+    void checkBackwardCompatibility() {
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_OPTIONAL_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.BACKWARD));
+
+        Optional<List<String>> incompatibilities = AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.BACKWARD);
+
+        Assertions.assertTrue(incompatibilities.isPresent());
+        Assertions.assertEquals(1, incompatibilities.get().size());
+        Assertions.assertTrue(incompatibilities.get().get(0).startsWith("Incompatible with version 1: READER_FIELD_MISSING_DEFAULT_VALUE"));
+    }
+
+    /**
+     * Validate the previous version must be able to read the data written with a new schema, with a forward compatibility
+     */
+    @Test
+    void checkForwardCompatibility() {
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.FORWARD));
+
+        Assertions.assertFalse(AvroCompatibilityUtils.checkCompatibility(PERSON_WITHOUT_FIRST_NAME,
+                versions(PERSON), Schema.Compatibility.FORWARD).orElseThrow().isEmpty());
+    }
+
+    /**
+     * Validate a new schema must be both backward and forward compatible, with a full compatibility
+     */
+    @Test
+    void checkFullCompatibility() {
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_OPTIONAL_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.FULL));
+
+        Assertions.assertFalse(AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.FULL).orElseThrow().isEmpty());
+    }
+
+    /**
+     * Validate a new schema is checked against all the versions with a transitive compatibility, against the latest one otherwise
+     */
+    @Test
+    void checkTransitiveCompatibility() {
+        // Only the latest version is checked when the compatibility is not transitive
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITHOUT_FIRST_NAME,
+                versions(PERSON, PERSON_WITH_OPTIONAL_LAST_NAME), Schema.Compatibility.BACKWARD));
+
+        Optional<List<String>> incompatibilities = AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON, PERSON_WITH_OPTIONAL_LAST_NAME), Schema.Compatibility.BACKWARD_TRANSITIVE);
+
+        Assertions.assertTrue(incompatibilities.isPresent());
+        Assertions.assertTrue(incompatibilities.get().stream().anyMatch(incompatibility -> incompatibility.startsWith("Incompatible with version 1:")));
+        Assertions.assertTrue(incompatibilities.get().stream().anyMatch(incompatibility -> incompatibility.startsWith("Incompatible with version 2:")));
+    }
+
+    /**
+     * Validate any schema is compatible without compatibility, or when the subject has no version
+     */
+    @Test
+    void checkCompatibilityNone() {
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.NONE));
+        Assertions.assertEquals(Optional.of(List.of()), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(), Schema.Compatibility.BACKWARD));
+    }
+
+    /**
+     * Validate the compatibility is left to the Schema Registry with the global compatibility, or when the schema cannot be parsed
+     */
+    @Test
+    void checkCompatibilityNotLocal() {
+        Assertions.assertEquals(Optional.empty(), AvroCompatibilityUtils.checkCompatibility(PERSON_WITH_LAST_NAME,
+                versions(PERSON), Schema.Compatibility.GLOBAL));
+        Assertions.assertEquals(Optional.empty(), AvroCompatibilityUtils.checkCompatibility("{\"type\":\"record\"",
+                versions(PERSON), Schema.Compatibility.BACKWARD));
+    }
+
+    /**
+     * Build the versions of a subject
+     * @param schemas The schemas, from the oldest to the latest
+     * @return The schemas by version
+     */
+    private static SortedMap<Integer, String> versions(String... schemas) {
+        SortedMap<Integer, String> versions = new TreeMap<>();
+        for (int i = 0; i < schemas.length; i++) {
+            versions.put(i + 1, schemas[i]);
+        }
+        return versions;
+    }
+}
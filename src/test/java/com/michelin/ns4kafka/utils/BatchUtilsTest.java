@@ -0,0 +1,35 @@
+package com.michelin.ns4kafka.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class BatchUtilsTest {
+    /**
+     * Validate a list is split into chunks
+     */
+    @Test
+    void validatePartition() {
+        List<List<Integer>> chunks = BatchUtils.partition(List.of(1, 2, 3, 4, 5), 2);
+
+        Assertions.assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), chunks);
+    }
+
+    /**
+     * Validate an empty list gives no chunk
+     */
+    @Test
+    void validatePartitionEmpty() {
+        Assertions.assertTrue(BatchUtils.partition(List.of(), 2).isEmpty());
+    }
+
+    /**
+     * Validate the chunk size must be positive
+     */
+    @Test
+    void validatePartitionInvalidSize() {
+        List<Integer> elements = List.of(1, 2);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BatchUtils.partition(elements, 0));
+    }
+}
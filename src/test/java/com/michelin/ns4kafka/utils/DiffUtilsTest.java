@@ -0,0 +1,44 @@
+package com.michelin.ns4kafka.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class DiffUtilsTest {
+    /**
+     * Validate the differences between two states
+     */
+    @Test
+    void validateDiff() {
+        DiffUtils.Diff<String> diff = DiffUtils.diff(List.of("a", "b", "c"), List.of("b", "c", "d", "e"));
+
+        Assertions.assertEquals(List.of("a"), diff.toCreate());
+        Assertions.assertEquals(List.of("d", "e"), diff.toDelete());
+        Assertions.assertEquals(List.of("b", "c"), diff.unchanged());
+    }
+
+    /**
+     * Validate duplicated elements are considered only once
+     */
+    @Test
+    void validateDiffWithDuplicates() {
+        DiffUtils.Diff<String> diff = DiffUtils.diff(List.of("a", "a", "b"), List.of("c", "c"));
+
+        Assertions.assertEquals(List.of("a", "b"), diff.toCreate());
+        Assertions.assertEquals(List.of("c"), diff.toDelete());
+        Assertions.assertTrue(diff.unchanged().isEmpty());
+    }
+
+    /**
+     * Validate the differences between two empty states
+     */
+    @Test
+    void validateDiffEmpty() {
+        DiffUtils.Diff<String> diff = DiffUtils.diff(List.of(), List.of());
+
+        Assertions.assertTrue(diff.toCreate().isEmpty());
+        Assertions.assertTrue(diff.toDelete().isEmpty());
+        Assertions.assertTrue(diff.unchanged().isEmpty());
+    }
+}
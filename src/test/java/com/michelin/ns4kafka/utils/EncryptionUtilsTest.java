@@ -97,4 +97,19 @@ class EncryptionUtilsTest {
         Assertions.assertNotEquals(encryptedText2, encryptedText);
         Assertions.assertEquals(clearText, clearTextDecrypted2);
     }
+
+    /**
+     * Validate decryption with another salt returns the encrypted text
+     */
+    @Test
+    void validateDecryptWithAnotherSaltFails() {
+        String clearText = "myClearText";
+        String encryptionKey = "myKey";
+        String encryptedText = EncryptionUtils.encryptAESWithPrefix(clearText, encryptionKey, "toto");
+        String clearTextDecrypted = EncryptionUtils.decryptAESWithPrefix(encryptedText, encryptionKey, "tata");
+        String clearTextDecrypted2 = EncryptionUtils.decryptAESWithPrefix(encryptedText, encryptionKey, "toto");
+
+        Assertions.assertEquals(encryptedText, clearTextDecrypted);
+        Assertions.assertEquals(clearText, clearTextDecrypted2);
+    }
 }
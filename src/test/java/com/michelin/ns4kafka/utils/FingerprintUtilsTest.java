@@ -0,0 +1,125 @@
+package com.michelin.ns4kafka.utils;
+
+import com.michelin.ns4kafka.models.schema.Schema;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class FingerprintUtilsTest {
+    /**
+     * Validate the fingerprint of a configuration does not depend on the order of its entries
+     */
+    @Test
+    void validateFingerprintDoesNotDependOnOrder() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("connector.class", "FileStreamSinkConnector");
+        first.put("tasks.max", "1");
+
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("tasks.max", "1");
+        second.put("connector.class", "FileStreamSinkConnector");
+
+        Assertions.assertEquals(FingerprintUtils.fingerprint(first), FingerprintUtils.fingerprint(second));
+    }
+
+    /**
+     * Validate the fingerprint of a configuration changes with its values
+     */
+    @Test
+    void validateFingerprintChangesWithValues() {
+        Assertions.assertNotEquals(FingerprintUtils.fingerprint(Map.of("tasks.max", "1")),
+                FingerprintUtils.fingerprint(Map.of("tasks.max", "2")));
+    }
+
+    /**
+     * Validate the fingerprint of a configuration does not collide when a key and a value are split differently
+     */
+    @Test
+    void validateFingerprintDoesNotCollideOnEntryBoundaries() {
+        Assertions.assertNotEquals(FingerprintUtils.fingerprint(Map.of("a", "bc")),
+                FingerprintUtils.fingerprint(Map.of("ab", "c")));
+    }
+
+    /**
+     * Validate the fingerprint of a configuration with null values
+     */
+    @Test
+    void validateFingerprintNullValues() {
+        Map<String, String> withNull = new HashMap<>();
+        withNull.put("topics", null);
+
+        Assertions.assertNotEquals(FingerprintUtils.fingerprint(withNull), FingerprintUtils.fingerprint(Map.of("topics", "")));
+        Assertions.assertEquals(64, FingerprintUtils.fingerprint(Map.of()).length());
+    }
+
+    /**
+     * Validate the fingerprint of a schema does not depend on its formatting
+     */
+    @Test
+    void validateSchemaFingerprintDoesNotDependOnFormatting() {
+        Schema.SchemaSpec first = Schema.SchemaSpec.builder()
+                .schema("{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"}]}")
+                .build();
+
+        Schema.SchemaSpec second = Schema.SchemaSpec.builder()
+                .schema("{\n  \"name\": \"PersonAvro\",\n  \"type\": \"record\",\n  \"fields\": [ { \"type\": \"string\", \"name\": \"firstName\" } ]\n}")
+                .build();
+
+        Assertions.assertEquals(FingerprintUtils.fingerprint(first), FingerprintUtils.fingerprint(second));
+    }
+
+    /**
+     * Validate the fingerprint of a schema changes with the order of its fields, its type and its references
+     */
+    @Test
+    void validateSchemaFingerprintChangesWithFieldsOrderTypeAndReferences() {
+        Schema.SchemaSpec schema = Schema.SchemaSpec.builder()
+                .schema("{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"firstName\",\"type\":\"string\"},{\"name\":\"lastName\",\"type\":\"string\"}]}")
+                .build();
+
+        Schema.SchemaSpec reorderedFields = Schema.SchemaSpec.builder()
+                .schema("{\"type\":\"record\",\"name\":\"PersonAvro\",\"fields\":[{\"name\":\"lastName\",\"type\":\"string\"},{\"name\":\"firstName\",\"type\":\"string\"}]}")
+                .build();
+
+        Schema.SchemaSpec jsonSchema = Schema.SchemaSpec.builder()
+                .schemaType(Schema.SchemaType.JSON)
+                .schema(schema.getSchema())
+                .build();
+
+        Schema.SchemaSpec withReferences = Schema.SchemaSpec.builder()
+                .schema(schema.getSchema())
+                .references(List.of(Schema.SchemaSpec.Reference.builder()
+                        .name("com.michelin.Address")
+                        .subject("prefix.address-value")
+                        .version(1)
+                        .build()))
+                .build();
+
+        String fingerprint = FingerprintUtils.fingerprint(schema);
+        Assertions.assertNotEquals(fingerprint, FingerprintUtils.fingerprint(reorderedFields));
+        Assertions.assertNotEquals(fingerprint, FingerprintUtils.fingerprint(jsonSchema));
+        Assertions.assertNotEquals(fingerprint, FingerprintUtils.fingerprint(withReferences));
+    }
+
+    /**
+     * Validate the fingerprint of a Protobuf schema does not depend on its whitespaces
+     */
+    @Test
+    void validateSchemaFingerprintProtobuf() {
+        Schema.SchemaSpec first = Schema.SchemaSpec.builder()
+                .schemaType(Schema.SchemaType.PROTOBUF)
+                .schema("syntax = \"proto3\";\nmessage Person {\n  string first_name = 1;\n}\n")
+                .build();
+
+        Schema.SchemaSpec second = Schema.SchemaSpec.builder()
+                .schemaType(Schema.SchemaType.PROTOBUF)
+                .schema("syntax = \"proto3\"; message Person { string first_name = 1; }")
+                .build();
+
+        Assertions.assertEquals(FingerprintUtils.fingerprint(first), FingerprintUtils.fingerprint(second));
+    }
+}
@@ -0,0 +1,43 @@
+package com.michelin.ns4kafka.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+    /**
+     * Validate a value matches when it starts with one of the prefixes
+     */
+    @Test
+    void validateMatchesPrefixOf() {
+        PrefixTrie prefixTrie = new PrefixTrie();
+        prefixTrie.add("abc.");
+        prefixTrie.add("abd.topic");
+
+        Assertions.assertTrue(prefixTrie.matchesPrefixOf("abc.topic"));
+        Assertions.assertTrue(prefixTrie.matchesPrefixOf("abc."));
+        Assertions.assertTrue(prefixTrie.matchesPrefixOf("abd.topic1"));
+        Assertions.assertFalse(prefixTrie.matchesPrefixOf("abd.other"));
+        Assertions.assertFalse(prefixTrie.matchesPrefixOf("abc"));
+        Assertions.assertFalse(prefixTrie.matchesPrefixOf(""));
+    }
+
+    /**
+     * Validate an empty prefix matches every value
+     */
+    @Test
+    void validateMatchesEmptyPrefix() {
+        PrefixTrie prefixTrie = new PrefixTrie();
+        prefixTrie.add("");
+
+        Assertions.assertTrue(prefixTrie.matchesPrefixOf("topic"));
+        Assertions.assertTrue(prefixTrie.matchesPrefixOf(""));
+    }
+
+    /**
+     * Validate no value matches when there is no prefix
+     */
+    @Test
+    void validateMatchesNoPrefix() {
+        Assertions.assertFalse(new PrefixTrie().matchesPrefixOf("topic"));
+    }
+}